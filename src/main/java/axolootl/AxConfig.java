@@ -15,6 +15,9 @@ public class AxConfig {
     public final ForgeConfigSpec.LongValue BASE_GENERATION_PERIOD;
     public final ForgeConfigSpec.LongValue BASE_BREEDING_PERIOD;
     public final ForgeConfigSpec.LongValue BASE_FEEDING_PERIOD;
+    public final ForgeConfigSpec.IntValue RESOURCE_OVERFLOW_CAPACITY;
+    public final ForgeConfigSpec.IntValue AQUARIUM_TICK_BUDGET;
+    public final ForgeConfigSpec.IntValue CATCH_UP_MAX_CYCLES;
 
     public AxConfig(ForgeConfigSpec.Builder builder) {
         builder.push("options");
@@ -33,6 +36,15 @@ public class AxConfig {
         BASE_FEEDING_PERIOD = builder
                 .comment("The base number of ticks in a mob feeding cycle")
                 .defineInRange("base_feeding_period", 6000L, 1L, 96000L);
+        RESOURCE_OVERFLOW_CAPACITY = builder
+                .comment("The maximum number of item stacks for a controller to hold when its outputs are full")
+                .defineInRange("resource_overflow_capacity", 27, 0, 256);
+        AQUARIUM_TICK_BUDGET = builder
+                .comment("The maximum number of microseconds for all controllers in a level to spend on deferrable work each tick, or 0 for no limit")
+                .defineInRange("aquarium_tick_budget", 2000, 0, 50000);
+        CATCH_UP_MAX_CYCLES = builder
+                .comment("The maximum number of resource generation cycles for a controller to catch up after its tank was not loaded, or 0 to disable catching up")
+                .defineInRange("catch_up_max_cycles", 8, 0, 64);
         builder.pop();
     }
 }
@@ -8,6 +8,8 @@ package axolootl;
 
 import axolootl.block.AquariumGlassBlock;
 import axolootl.block.BlockConverter;
+import axolootl.block.entity.AquariumChangeTracker;
+import axolootl.block.entity.AquariumScheduler;
 import axolootl.command.AxolootlResearchCommand;
 import axolootl.data.aquarium_modifier.AquariumModifier;
 import axolootl.data.axolootl_variant.AxolootlVariant;
@@ -23,6 +25,8 @@ import net.minecraftforge.event.OnDatapackSyncEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
@@ -47,13 +51,25 @@ public final class AxEvents {
         @SubscribeEvent
         public static void onDatapackSync(final OnDatapackSyncEvent event) {
             final RegistryAccess registryAccess = event.getPlayerList().getServer().registryAccess();
-            AxRegistry.refreshCaches(registryAccess);
             Axolootl.LOGGER.debug("Axolootl loaded " + (AxolootlVariant.getRegistry(registryAccess).size()) + " axolootl variants");
             Axolootl.LOGGER.debug("Axolootl loaded " + ResourceGenerator.getRegistry(registryAccess).size() + " resource generators");
             Axolootl.LOGGER.debug("Axolootl loaded " + AxolootlBreeding.getRegistry(registryAccess).size() + " axolootl breeding recipes");
             Axolootl.LOGGER.debug("Axolootl loaded " + AquariumModifier.getRegistry(registryAccess).size() + " aquarium modifiers");
         }
 
+        @SubscribeEvent
+        public static void onNeighborNotify(final BlockEvent.NeighborNotifyEvent event) {
+            if(!event.getLevel().isClientSide()) {
+                AquariumChangeTracker.onBlockChanged(event.getLevel(), event.getPos());
+            }
+        }
+
+        @SubscribeEvent
+        public static void onLevelUnload(final LevelEvent.Unload event) {
+            AquariumChangeTracker.clear(event.getLevel());
+            AquariumScheduler.clear(event.getLevel());
+        }
+
         @SubscribeEvent
         public static void onPlayerLoggedOut(final PlayerEvent.PlayerLoggedOutEvent event) {
             if(event.getEntity().level.isClientSide()) {
@@ -63,10 +79,10 @@ public final class AxEvents {
 
         @SubscribeEvent(priority = EventPriority.HIGH)
         public static void onTagsUpdated(final TagsUpdatedEvent event) {
-            // validate axolootl variants
+            // compile caches and validate axolootl variants
             final RegistryAccess registryAccess = event.getRegistryAccess();
-            AxRegistry.AxolootlVariantsReg.validate(registryAccess);
-            Axolootl.LOGGER.debug("Axolootl validated " + (AxolootlVariant.getRegistry(registryAccess).size() - AxRegistry.AxolootlVariantsReg.getInvalidEntries().size()) + " axolootl variants");
+            AxRegistry.refreshCaches(registryAccess);
+            Axolootl.LOGGER.debug("Axolootl validated " + (AxolootlVariant.getRegistry(registryAccess).size() - AxRegistry.AxolootlVariantsReg.getInvalidEntries(registryAccess).size()) + " axolootl variants");
         }
 
     }
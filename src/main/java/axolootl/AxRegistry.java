@@ -9,13 +9,18 @@ package axolootl;
 import axolootl.block.*;
 import axolootl.block.entity.*;
 import axolootl.capability.AxolootlResearchCapability;
+import axolootl.capability.AxolootlResearchIndex;
 import axolootl.data.aquarium_tab.AquariumTab;
 import axolootl.data.aquarium_tab.IAquariumTab;
 import axolootl.data.aquarium_tab.WorldlyMenuProvider;
 import axolootl.data.axolootl_variant.condition.*;
 import axolootl.data.breeding.AxolootlBreeding;
+import axolootl.data.breeding.AxolootlBreedingIndex;
 import axolootl.data.aquarium_modifier.AquariumModifier;
+import axolootl.data.aquarium_modifier.AquariumModifierIndex;
 import axolootl.data.axolootl_variant.AxolootlVariant;
+import axolootl.data.axolootl_variant.AxolootlVariantSnapshot;
+import axolootl.data.axolootl_variant.Bonuses;
 import axolootl.data.aquarium_modifier.condition.*;
 import axolootl.data.breeding.AxolootlBreedingWrapper;
 import axolootl.data.breeding_modifier.*;
@@ -32,9 +37,9 @@ import axolootl.menu.CyclingMenu;
 import axolootl.util.ControllerTabSorter;
 import axolootl.util.MatchingStatePredicate;
 import axolootl.util.NbtPredicate;
-import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.nbt.Tag;
@@ -92,12 +97,12 @@ import net.minecraftforge.registries.RegistryObject;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -198,25 +203,96 @@ public final class AxRegistry {
 
     //// HELPERS ////
 
+    /** The most recent registry snapshot for each side, replaced only when a newer snapshot is complete **/
+    private static final AtomicReference<RegistrySnapshot> SNAPSHOT = new AtomicReference<>();
+    private static final AtomicReference<RegistrySnapshot> SNAPSHOT_CLIENT = new AtomicReference<>();
+    /** Incremented each time a snapshot is requested so that older snapshots that complete later are discarded **/
+    private static final AtomicLong SNAPSHOT_GENERATION = new AtomicLong();
+    private static final AtomicLong SNAPSHOT_GENERATION_CLIENT = new AtomicLong();
+
+
     /**
      * Clears the cached datapack-derived data
      */
     public static void clearCaches() {
         AxRegistry.AquariumTabsReg.clearCache();
-        AxRegistry.AxolootlVariantsReg.clearCache();
-        AxRegistry.AquariumModifiersReg.clearCache();
-        AxRegistry.AxolootlBreedingReg.clearCache();
+        final boolean client = EffectiveSide.get().isClient();
+        final AtomicReference<RegistrySnapshot> reference = client ? SNAPSHOT_CLIENT : SNAPSHOT;
+        synchronized (reference) {
+            (client ? SNAPSHOT_GENERATION_CLIENT : SNAPSHOT_GENERATION).incrementAndGet();
+            reference.set(null);
+        }
     }
 
     /**
-     * Clears and re-populates cached datapack-derived data
+     * Compiles the cached datapack-derived data on a background executor. The previous snapshot is used until the
+     * new one is complete. If the previous snapshot was created from different registries, a lazy snapshot is used
+     * instead, so the calling thread never waits for the full snapshot.
      * @param registryAccess the registry access
      */
     public static void refreshCaches(final RegistryAccess registryAccess) {
-        clearCaches();
+        AxRegistry.AquariumTabsReg.clearCache();
         AxRegistry.AquariumTabsReg.getSortedTabs();
-        AxRegistry.AxolootlVariantsReg.validate(registryAccess);
-        AxRegistry.AquariumModifiersReg.getMandatoryAquariumModifiers(registryAccess);
+        AxolootlResearchIndex.get(registryAccess);
+        requestSnapshot(registryAccess, EffectiveSide.get().isClient());
+    }
+
+    /**
+     * Finds the snapshot by registry access, so the side is only checked when there is no snapshot for the given registries
+     * @param registryAccess the registry access
+     * @return the cached datapack-derived data for the given registries, which may compile each cache when it is first used
+     */
+    public static RegistrySnapshot getSnapshot(final RegistryAccess registryAccess) {
+        // check both sides, since each side has its own registry access
+        RegistrySnapshot snapshot = SNAPSHOT.get();
+        if(snapshot != null && snapshot.isFor(registryAccess)) {
+            return snapshot;
+        }
+        snapshot = SNAPSHOT_CLIENT.get();
+        if(snapshot != null && snapshot.isFor(registryAccess)) {
+            return snapshot;
+        }
+        // use a lazy snapshot until the full snapshot is complete
+        return requestSnapshot(registryAccess, EffectiveSide.get().isClient());
+    }
+
+    /**
+     * Starts compiling a snapshot and replaces the current snapshot for the given side once it is complete
+     * @param registryAccess the registry access
+     * @param client true for the client side
+     * @return the snapshot to use until the new snapshot is complete
+     */
+    private static RegistrySnapshot requestSnapshot(final RegistryAccess registryAccess, final boolean client) {
+        final AtomicReference<RegistrySnapshot> reference = client ? SNAPSHOT_CLIENT : SNAPSHOT;
+        final AtomicLong generation = client ? SNAPSHOT_GENERATION_CLIENT : SNAPSHOT_GENERATION;
+        final long expected;
+        RegistrySnapshot current;
+        synchronized (reference) {
+            expected = generation.incrementAndGet();
+            current = reference.get();
+            // publish a lazy snapshot when the previous one cannot be used
+            if(null == current || !current.isFor(registryAccess)) {
+                current = RegistrySnapshot.createLazy(registryAccess);
+                reference.set(current);
+            }
+        }
+        // replace the snapshot once it is complete, unless a newer snapshot was requested
+        RegistrySnapshot.compileAsync(registryAccess, client).whenComplete((snapshot, error) -> {
+            if(error != null) {
+                Axolootl.LOGGER.error("[AxRegistry#refreshCaches] Failed to compile registry snapshot", error);
+                return;
+            }
+            swapSnapshot(reference, generation, expected, snapshot);
+        });
+        return current;
+    }
+
+    private static void swapSnapshot(final AtomicReference<RegistrySnapshot> reference, final AtomicLong generation, final long expected, final RegistrySnapshot snapshot) {
+        synchronized (reference) {
+            if(generation.get() == expected) {
+                reference.set(snapshot);
+            }
+        }
     }
 
     private static void onCommonSetup(final FMLCommonSetupEvent event) {
@@ -462,7 +538,7 @@ public final class AxRegistry {
 
         private static void onAttachEntityCapabilities(final AttachCapabilitiesEvent<Entity> event) {
             if(event.getObject() instanceof Player) {
-                event.addCapability(AxolootlResearchCapability.REGISTRY_NAME, AxolootlResearchCapability.provider());
+                event.addCapability(AxolootlResearchCapability.REGISTRY_NAME, AxolootlResearchCapability.provider((Player) event.getObject()));
             }
         }
 
@@ -517,6 +593,49 @@ public final class AxRegistry {
         public static final RegistryObject<Codec<? extends ResourceGenerator>> AND = RESOURCE_GENERATOR_SERIALIZERS.register("and", () -> AndResourceGenerator.CODEC);
         public static final RegistryObject<Codec<? extends ResourceGenerator>> SELECT = RESOURCE_GENERATOR_SERIALIZERS.register("select", () -> SelectResourceGenerator.CODEC);
         public static final RegistryObject<Codec<? extends ResourceGenerator>> REFERENCE = RESOURCE_GENERATOR_SERIALIZERS.register("reference", () -> ReferenceResourceGenerator.CODEC);
+
+        /**
+         * @param registry the resource generator registry
+         * @param generator the resource generator to visit
+         * @param visited map of visited resource generators, where a null value indicates the generator is in the current path
+         * @param path the resource generators that led to this one
+         * @return true if the generator is part of or refers to a reference cycle
+         */
+        static boolean findCycles(final Registry<ResourceGenerator> registry, final ResourceGenerator generator,
+                                  final Map<ResourceGenerator, Boolean> visited, final List<ResourceGenerator> path) {
+            // check for visited generators
+            if(visited.containsKey(generator)) {
+                final Boolean cyclic = visited.get(generator);
+                if(null == cyclic) {
+                    // generator is in the current path
+                    final StringBuilder builder = new StringBuilder();
+                    for(ResourceGenerator entry : path.subList(path.indexOf(generator), path.size())) {
+                        builder.append(getName(registry, entry)).append(" -> ");
+                    }
+                    builder.append(getName(registry, generator));
+                    Axolootl.LOGGER.error("[ResourceGeneratorsReg#findCycles] Detected resource generator reference cycle " + builder);
+                    return true;
+                }
+                return cyclic;
+            }
+            // visit each referenced generator
+            visited.put(generator, null);
+            path.add(generator);
+            boolean cyclic = false;
+            for(Holder<ResourceGenerator> holder : generator.getReferences()) {
+                if(holder.isBound()) {
+                    cyclic |= findCycles(registry, holder.value(), visited, path);
+                }
+            }
+            path.remove(path.size() - 1);
+            visited.put(generator, cyclic);
+            return cyclic;
+        }
+
+        private static String getName(final Registry<ResourceGenerator> registry, final ResourceGenerator generator) {
+            final ResourceLocation id = registry.getKey(generator);
+            return (id != null) ? id.toString() : generator.toString();
+        }
     }
 
     public static final class ModifierConditionsReg {
@@ -566,33 +685,24 @@ public final class AxRegistry {
 
     public static final class AquariumModifiersReg {
 
-        private static final Set<TagKey<AquariumModifier>> MANDATORY_AQUARIUM_MODIFIERS = new HashSet<>();
-        private static final Set<TagKey<AquariumModifier>> MANDATORY_AQUARIUM_MODIFIERS_CLIENT = new HashSet<>();
-        private static final String MANDATORY_PREFIX = "mandatory";
-
         public static void register() {
             AQUARIUM_MODIFIERS.register(FMLJavaModLoadingContext.get().getModEventBus());
         }
 
+        /**
+         * @param registryAccess the registry access
+         * @return all aquarium modifier tags that are in the mandatory folder and not empty
+         */
         public static Set<TagKey<AquariumModifier>> getMandatoryAquariumModifiers(final RegistryAccess registryAccess) {
-            final Set<TagKey<AquariumModifier>> set = EffectiveSide.get().isClient() ? MANDATORY_AQUARIUM_MODIFIERS_CLIENT : MANDATORY_AQUARIUM_MODIFIERS;
-            if(set.isEmpty()) {
-                // collect all aquarium modifiers that are in the mandatory folder
-                set.addAll(AquariumModifier.getRegistry(registryAccess).getTags()
-                            .filter(pair -> pair.getFirst().location().getPath().startsWith(MANDATORY_PREFIX + "/") && pair.getSecond().size() > 0)
-                            .map(Pair::getFirst)
-                            .toList()
-                );
-            }
-            return Collections.unmodifiableSet(set);
+            return getSnapshot(registryAccess).getMandatoryModifiers();
         }
 
-        private static void clearCache() {
-            if(EffectiveSide.get().isClient()) {
-                MANDATORY_AQUARIUM_MODIFIERS_CLIENT.clear();
-            } else {
-                MANDATORY_AQUARIUM_MODIFIERS.clear();
-            }
+        /**
+         * @param registryAccess the registry access
+         * @return the index of blocks to candidate aquarium modifiers
+         */
+        public static AquariumModifierIndex getIndex(final RegistryAccess registryAccess) {
+            return getSnapshot(registryAccess).getModifierIndex();
         }
     }
 
@@ -710,53 +820,53 @@ public final class AxRegistry {
             AXOLOOTL_VARIANTS.register(FMLJavaModLoadingContext.get().getModEventBus());
         }
 
-        private static final Set<ResourceLocation> INVALID = new HashSet<>();
-        private static final Set<ResourceLocation> INVALID_CLIENT = new HashSet<>();
-
-        public static void validate(final RegistryAccess access) {
-            final Set<ResourceLocation> set = EffectiveSide.get().isClient() ? INVALID_CLIENT : INVALID;
-            set.clear();
-            // create context
-            final ForgeConditionContext context = new ForgeConditionContext(access);
-            // iterate registry
-            for(Map.Entry<ResourceKey<AxolootlVariant>, AxolootlVariant> entry : AxolootlVariant.getRegistry(access).entrySet()) {
-                // test each entry
-                if(!entry.getValue().getCondition().test(context)) {
-                    set.add(entry.getKey().location());
-                }
-            }
+        /**
+         * @param access the registry access
+         * @param id the axolootl variant ID
+         * @return true if the axolootl variant is registered and enabled
+         */
+        public static boolean isValid(final RegistryAccess access, final ResourceLocation id) {
+            return getSnapshot(access).isValid(id);
         }
 
-        public static boolean isValid(final ResourceLocation id) {
-            return !getInvalidEntries().contains(id);
+        public static boolean isValid(final RegistryAccess access, final AxolootlVariant variant) {
+            return variant != AxolootlVariant.EMPTY && getSnapshot(access).isValid(variant);
         }
 
-        public static boolean isValid(final RegistryAccess access, final AxolootlVariant variant) {
-            return variant != AxolootlVariant.EMPTY && isValid(variant.getRegistryName(access));
+        /**
+         * @param access the registry access
+         * @return the axolootl variants of the given registries, indexed by their registry ID
+         */
+        public static AxolootlVariantSnapshot getSnapshot(final RegistryAccess access) {
+            return AxRegistry.getSnapshot(access).getVariantSnapshot();
         }
 
-        public static Set<ResourceLocation> getInvalidEntries() {
-            if(EffectiveSide.get().isClient()) {
-                return Collections.unmodifiableSet(INVALID_CLIENT);
-            } else {
-                return Collections.unmodifiableSet(INVALID);
-            }
+        /**
+         * @param access the registry access
+         * @return an unmodifiable set of the disabled axolootl variant IDs
+         */
+        public static Set<ResourceLocation> getInvalidEntries(final RegistryAccess access) {
+            return AxRegistry.getSnapshot(access).getInvalidVariants();
         }
 
-        private static void clearCache() {
-            if(EffectiveSide.get().isClient()) {
-                INVALID_CLIENT.clear();
-            } else {
-                INVALID.clear();
+        /**
+         * Finds the food bonuses in the snapshot that contains the given variant, since each variant belongs to one registry
+         * @param variant the axolootl variant
+         * @return the first food bonuses for each item, as defined by {@link AxolootlVariant#getFoodBonusesMap()}
+         */
+        public static Map<Item, Bonuses> getFoodBonuses(final AxolootlVariant variant) {
+            final RegistrySnapshot server = SNAPSHOT.get();
+            Map<Item, Bonuses> map = (server != null) ? server.getFoodBonuses().get(variant) : null;
+            if(null == map) {
+                final RegistrySnapshot client = SNAPSHOT_CLIENT.get();
+                map = (client != null) ? client.getFoodBonuses().get(variant) : null;
             }
+            return (map != null) ? map : variant.getFoodBonusesMap();
         }
     }
 
     public static final class AxolootlBreedingReg {
 
-        private static final Map<ResourceLocation, AxolootlBreedingWrapper> WRAPPERS = new HashMap<>();
-        private static final Map<ResourceLocation, AxolootlBreedingWrapper> WRAPPERS_CLIENT = new HashMap<>();
-
         public static void register() {
             AXOLOOTL_BREEDING.register(FMLJavaModLoadingContext.get().getModEventBus());
         }
@@ -768,26 +878,15 @@ public final class AxRegistry {
             if(null == key) {
                 throw new IllegalArgumentException("Attempted to create AxolootlBreedingWrapper for unregistered AxolootlBreeding object " + entry.toString());
             }
-            final Map<ResourceLocation, AxolootlBreedingWrapper> map = EffectiveSide.get().isClient() ? WRAPPERS_CLIENT : WRAPPERS;
-            // create value if it does not exist
-            if(!map.containsKey(key)) {
-                // collect modifiers
-                final List<AxolootlBreedingModifier> modifiers = AxolootlBreedingModifier.getRegistry(access)
-                        .stream()
-                        .filter(modifier -> key.equals(modifier.getTarget()))
-                        .toList();
-                // add wrapper to map
-                map.put(key, new AxolootlBreedingWrapper(access, entry, modifiers));
-            }
-            return map.get(key);
+            return getSnapshot(access).getBreedingWrappers().get(key);
         }
 
-        private static void clearCache() {
-            if(EffectiveSide.get().isClient()) {
-                WRAPPERS_CLIENT.clear();
-            } else {
-                WRAPPERS.clear();
-            }
+        /**
+         * @param access the registry access
+         * @return the index of axolootl variant pairs to breeding recipes
+         */
+        public static AxolootlBreedingIndex getIndex(final RegistryAccess access) {
+            return getSnapshot(access).getBreedingIndex();
         }
     }
 
@@ -0,0 +1,348 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl;
+
+import axolootl.data.aquarium_modifier.AquariumModifier;
+import axolootl.data.aquarium_modifier.AquariumModifierIndex;
+import axolootl.data.axolootl_variant.AxolootlVariant;
+import axolootl.data.axolootl_variant.AxolootlVariantSnapshot;
+import axolootl.data.axolootl_variant.Bonuses;
+import axolootl.data.axolootl_variant.condition.ForgeConditionContext;
+import axolootl.data.breeding.AxolootlBreeding;
+import axolootl.data.breeding.AxolootlBreedingIndex;
+import axolootl.data.breeding.AxolootlBreedingWrapper;
+import axolootl.data.breeding_modifier.AxolootlBreedingModifier;
+import axolootl.data.resource_generator.ResourceGenerator;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.Util;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Immutable caches derived from the datapack registries. Snapshots are compiled on a background executor,
+ * with independent caches compiled in parallel, and replace the previous snapshot only once they are complete.
+ * Until then, a lazy snapshot compiles each cache on the calling thread only when it is used.
+ * Compiling must not read any snapshot, so each step receives the results it depends on directly.
+ * @see AxRegistry#refreshCaches(RegistryAccess)
+ */
+@Immutable
+public final class RegistrySnapshot {
+
+    private static final String MANDATORY_PREFIX = "mandatory";
+
+    private final RegistryAccess access;
+    /** The axolootl variant registry, which is replaced when datapacks are synced **/
+    private final Registry<AxolootlVariant> variants;
+    /** True if each cache was compiled in advance, false if caches are compiled when first used **/
+    private final boolean compiled;
+    /** Map of resource generators to true if the generator is part of or refers to a reference cycle **/
+    private final Supplier<Map<ResourceGenerator, Boolean>> cyclicGenerators;
+    private final Supplier<Set<ResourceLocation>> invalidVariants;
+    private final Supplier<AxolootlVariantSnapshot> variantSnapshot;
+    private final Supplier<Map<AxolootlVariant, Map<Item, Bonuses>>> foodBonuses;
+    private final Supplier<Set<TagKey<AquariumModifier>>> mandatoryModifiers;
+    private final Supplier<AquariumModifierIndex> modifierIndex;
+    private final Supplier<Map<ResourceLocation, AxolootlBreedingWrapper>> breedingWrappers;
+    private final Supplier<AxolootlBreedingIndex> breedingIndex;
+
+    private RegistrySnapshot(final RegistryAccess access, final boolean compiled, final Supplier<Map<ResourceGenerator, Boolean>> cyclicGenerators,
+                             final Supplier<Set<ResourceLocation>> invalidVariants, final Supplier<AxolootlVariantSnapshot> variantSnapshot,
+                             final Supplier<Map<AxolootlVariant, Map<Item, Bonuses>>> foodBonuses,
+                             final Supplier<Set<TagKey<AquariumModifier>>> mandatoryModifiers, final Supplier<AquariumModifierIndex> modifierIndex,
+                             final Supplier<Map<ResourceLocation, AxolootlBreedingWrapper>> breedingWrappers, final Supplier<AxolootlBreedingIndex> breedingIndex) {
+        this.access = access;
+        this.variants = AxolootlVariant.getRegistry(access);
+        this.compiled = compiled;
+        this.cyclicGenerators = cyclicGenerators;
+        this.invalidVariants = invalidVariants;
+        this.variantSnapshot = variantSnapshot;
+        this.foodBonuses = foodBonuses;
+        this.mandatoryModifiers = mandatoryModifiers;
+        this.modifierIndex = modifierIndex;
+        this.breedingWrappers = breedingWrappers;
+        this.breedingIndex = breedingIndex;
+    }
+
+    /**
+     * Creates a snapshot that compiles each cache on the calling thread when it is first used. This is published
+     * while the full snapshot compiles, so that only the caches that are needed before then are compiled twice.
+     * @param access the registry access
+     * @return a snapshot that compiles each cache when needed
+     */
+    public static RegistrySnapshot createLazy(final RegistryAccess access) {
+        final Supplier<Map<ResourceGenerator, Boolean>> cyclic = Suppliers.memoize(() -> detectCycles(access));
+        final Supplier<Set<ResourceLocation>> invalid = Suppliers.memoize(() -> compileInvalidVariants(access, cyclic.get()));
+        final Supplier<Map<ResourceLocation, AxolootlBreedingWrapper>> wrappers = Suppliers.memoize(() -> compileBreedingWrappers(access, invalid.get(), Runnable::run).join());
+        return new RegistrySnapshot(access, false, cyclic, invalid,
+                Suppliers.memoize(() -> AxolootlVariantSnapshot.create(access, invalid.get(), cyclic.get())),
+                Suppliers.memoize(() -> compileFoodBonuses(access)),
+                Suppliers.memoize(() -> compileMandatoryModifiers(access)),
+                Suppliers.memoize(() -> AquariumModifierIndex.create(access)),
+                wrappers,
+                Suppliers.memoize(() -> compileBreedingIndex(access, wrappers.get())));
+    }
+
+    //// COMPILE ////
+
+    /**
+     * @param access the registry access
+     * @param describe true to create the resource generator descriptions, which are only used on the client
+     * @return a future that completes with the compiled snapshot
+     */
+    public static CompletableFuture<RegistrySnapshot> compileAsync(final RegistryAccess access, final boolean describe) {
+        return compileAsync(access, describe, Util.backgroundExecutor());
+    }
+
+    /**
+     * @param access the registry access
+     * @param describe true to create the resource generator descriptions, which are only used on the client
+     * @param executor the executor to compile on
+     * @return a future that completes with the compiled snapshot
+     */
+    public static CompletableFuture<RegistrySnapshot> compileAsync(final RegistryAccess access, final boolean describe, final Executor executor) {
+        // compile independent caches in parallel
+        final CompletableFuture<Map<ResourceGenerator, Boolean>> generators = CompletableFuture.supplyAsync(() -> compileGenerators(detectCycles(access), describe), executor);
+        final CompletableFuture<Map<AxolootlVariant, Map<Item, Bonuses>>> foodBonuses = CompletableFuture.supplyAsync(() -> compileFoodBonuses(access), executor);
+        final CompletableFuture<Set<TagKey<AquariumModifier>>> mandatoryModifiers = CompletableFuture.supplyAsync(() -> compileMandatoryModifiers(access), executor);
+        final CompletableFuture<AquariumModifierIndex> modifierIndex = CompletableFuture.supplyAsync(() -> AquariumModifierIndex.create(access), executor);
+        // validate variants after generators, then create breeding recipes using the valid variants
+        final CompletableFuture<Set<ResourceLocation>> invalidVariants = generators.thenApplyAsync(cyclic -> compileInvalidVariants(access, cyclic), executor);
+        final CompletableFuture<AxolootlVariantSnapshot> variantSnapshot = invalidVariants.thenCombineAsync(generators, (invalid, cyclic) -> AxolootlVariantSnapshot.create(access, invalid, cyclic), executor);
+        final CompletableFuture<Map<ResourceLocation, AxolootlBreedingWrapper>> breedingWrappers = invalidVariants.thenComposeAsync(invalid -> compileBreedingWrappers(access, invalid, executor), executor);
+        final CompletableFuture<AxolootlBreedingIndex> breedingIndex = breedingWrappers.thenApplyAsync(wrappers -> compileBreedingIndex(access, wrappers), executor);
+        // combine results
+        return CompletableFuture.allOf(generators, foodBonuses, mandatoryModifiers, modifierIndex, invalidVariants, variantSnapshot, breedingWrappers, breedingIndex)
+                .thenApply(v -> new RegistrySnapshot(access, true, Suppliers.ofInstance(generators.join()), Suppliers.ofInstance(invalidVariants.join()),
+                        Suppliers.ofInstance(variantSnapshot.join()), Suppliers.ofInstance(foodBonuses.join()), Suppliers.ofInstance(mandatoryModifiers.join()),
+                        Suppliers.ofInstance(modifierIndex.join()), Suppliers.ofInstance(breedingWrappers.join()), Suppliers.ofInstance(breedingIndex.join())));
+    }
+
+    /**
+     * Detects resource generator reference cycles
+     * @param access the registry access
+     * @return an unmodifiable map of resource generators to true if the generator is part of or refers to a reference cycle
+     */
+    private static Map<ResourceGenerator, Boolean> detectCycles(final RegistryAccess access) {
+        final Registry<ResourceGenerator> registry = ResourceGenerator.getRegistry(access);
+        final Map<ResourceGenerator, Boolean> cyclic = new IdentityHashMap<>();
+        // detect cycles in registered generators and the generators of each variant
+        for(ResourceGenerator generator : registry) {
+            AxRegistry.ResourceGeneratorsReg.findCycles(registry, generator, cyclic, new ArrayList<>());
+        }
+        for(AxolootlVariant variant : AxolootlVariant.getRegistry(access)) {
+            final Holder<ResourceGenerator> holder = variant.getResourceGenerator();
+            if(holder.isBound()) {
+                AxRegistry.ResourceGeneratorsReg.findCycles(registry, holder.value(), cyclic, new ArrayList<>());
+            }
+        }
+        return Collections.unmodifiableMap(cyclic);
+    }
+
+    /**
+     * Compiles each resource generator that has no reference cycles
+     * @param cyclic the resource generator cycles
+     * @param describe true to create the description of each generator
+     * @return the resource generator cycles
+     */
+    private static Map<ResourceGenerator, Boolean> compileGenerators(final Map<ResourceGenerator, Boolean> cyclic, final boolean describe) {
+        final List<ResourceGenerator> valid = cyclic.entrySet().stream()
+                .filter(e -> !e.getValue())
+                .map(Map.Entry::getKey)
+                .toList();
+        valid.parallelStream().forEach(generator -> {
+            generator.compile();
+            if(describe) {
+                generator.getDescription();
+            }
+        });
+        return cyclic;
+    }
+
+    /**
+     * @param access the registry access
+     * @param cyclic the resource generator cycles
+     * @return the IDs of all axolootl variants that are disabled or have a resource generator with a reference cycle
+     */
+    private static Set<ResourceLocation> compileInvalidVariants(final RegistryAccess access, final Map<ResourceGenerator, Boolean> cyclic) {
+        final ForgeConditionContext context = new ForgeConditionContext(access);
+        final ImmutableSet.Builder<ResourceLocation> builder = ImmutableSet.builder();
+        for(Map.Entry<ResourceKey<AxolootlVariant>, AxolootlVariant> entry : AxolootlVariant.getRegistry(access).entrySet()) {
+            // test each entry
+            if(!entry.getValue().getCondition().test(context)) {
+                builder.add(entry.getKey().location());
+                continue;
+            }
+            // verify resource generator has no reference cycles
+            final Holder<ResourceGenerator> generator = entry.getValue().getResourceGenerator();
+            if(generator.isBound() && cyclic.getOrDefault(generator.value(), false)) {
+                Axolootl.LOGGER.error("[RegistrySnapshot#compile] Disabled axolootl variant " + entry.getKey().location() + " because its resource generator refers to itself");
+                builder.add(entry.getKey().location());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param access the registry access
+     * @return the first food bonuses for each item of each axolootl variant
+     */
+    private static Map<AxolootlVariant, Map<Item, Bonuses>> compileFoodBonuses(final RegistryAccess access) {
+        final Map<AxolootlVariant, Map<Item, Bonuses>> map = new IdentityHashMap<>();
+        for(AxolootlVariant variant : AxolootlVariant.getRegistry(access)) {
+            map.put(variant, variant.getFoodBonusesMap());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @param access the registry access
+     * @return all aquarium modifier tags that are in the mandatory folder and not empty
+     */
+    private static Set<TagKey<AquariumModifier>> compileMandatoryModifiers(final RegistryAccess access) {
+        return AquariumModifier.getRegistry(access).getTags()
+                .filter(pair -> pair.getFirst().location().getPath().startsWith(MANDATORY_PREFIX + "/") && pair.getSecond().size() > 0)
+                .map(Pair::getFirst)
+                .collect(ImmutableSet.toImmutableSet());
+    }
+
+    /**
+     * Creates the breeding wrapper for each breeding recipe in parallel
+     * @param access the registry access
+     * @param invalid the IDs of the invalid axolootl variants
+     * @param executor the executor to compile on
+     * @return a future that completes with a map of breeding recipe ID to breeding wrapper
+     */
+    private static CompletableFuture<Map<ResourceLocation, AxolootlBreedingWrapper>> compileBreedingWrappers(final RegistryAccess access, final Set<ResourceLocation> invalid, final Executor executor) {
+        final Registry<AxolootlBreeding> registry = AxolootlBreeding.getRegistry(access);
+        final List<AxolootlBreedingModifier> modifiers = AxolootlBreedingModifier.getRegistry(access).stream().toList();
+        // create each wrapper
+        final List<CompletableFuture<Pair<ResourceLocation, AxolootlBreedingWrapper>>> futures = new ArrayList<>();
+        for(Map.Entry<ResourceKey<AxolootlBreeding>, AxolootlBreeding> entry : registry.entrySet()) {
+            final ResourceLocation key = entry.getKey().location();
+            futures.add(CompletableFuture.supplyAsync(() -> Pair.of(key, new AxolootlBreedingWrapper(access, entry.getValue(),
+                    modifiers.stream().filter(modifier -> key.equals(modifier.getTarget())).toList(),
+                    id -> !invalid.contains(id))), executor));
+        }
+        // collect wrappers
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+            final ImmutableMap.Builder<ResourceLocation, AxolootlBreedingWrapper> builder = ImmutableMap.builder();
+            futures.forEach(future -> builder.put(future.join().getFirst(), future.join().getSecond()));
+            return builder.build();
+        });
+    }
+
+    /**
+     * @param access the registry access
+     * @param wrappers the breeding wrappers
+     * @return the breeding index
+     */
+    private static AxolootlBreedingIndex compileBreedingIndex(final RegistryAccess access, final Map<ResourceLocation, AxolootlBreedingWrapper> wrappers) {
+        final Registry<AxolootlBreeding> registry = AxolootlBreeding.getRegistry(access);
+        return AxolootlBreedingIndex.create(access, breeding -> wrappers.get(registry.getKey(breeding)));
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param access the registry access
+     * @return true if this snapshot was compiled from the same axolootl variant registry as the given registry access
+     */
+    public boolean isFor(final RegistryAccess access) {
+        return this.access == access || this.variants == AxolootlVariant.getRegistry(access);
+    }
+
+    //// GETTERS ////
+
+    /**
+     * @return true if each cache was compiled in advance, false if caches are compiled when first used
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * @return the registry access that was used to compile this snapshot
+     */
+    public RegistryAccess getAccess() {
+        return access;
+    }
+
+    /**
+     * @return an unmodifiable map of resource generators to true if the generator is part of or refers to a reference cycle
+     */
+    public Map<ResourceGenerator, Boolean> getCyclicGenerators() {
+        return cyclicGenerators.get();
+    }
+
+    /**
+     * @return the IDs of all axolootl variants that are disabled
+     */
+    public Set<ResourceLocation> getInvalidVariants() {
+        return invalidVariants.get();
+    }
+
+    /**
+     * @return the dense registry IDs, validity and resource generators of each axolootl variant
+     */
+    public AxolootlVariantSnapshot getVariantSnapshot() {
+        return variantSnapshot.get();
+    }
+
+    /**
+     * @return the first food bonuses for each item of each axolootl variant
+     */
+    public Map<AxolootlVariant, Map<Item, Bonuses>> getFoodBonuses() {
+        return foodBonuses.get();
+    }
+
+    /**
+     * @return all aquarium modifier tags that are in the mandatory folder and not empty
+     */
+    public Set<TagKey<AquariumModifier>> getMandatoryModifiers() {
+        return mandatoryModifiers.get();
+    }
+
+    /**
+     * @return the index of blocks to candidate aquarium modifiers
+     */
+    public AquariumModifierIndex getModifierIndex() {
+        return modifierIndex.get();
+    }
+
+    /**
+     * @return an unmodifiable map of breeding recipe ID to breeding wrapper
+     */
+    public Map<ResourceLocation, AxolootlBreedingWrapper> getBreedingWrappers() {
+        return breedingWrappers.get();
+    }
+
+    /**
+     * @return the index of axolootl variant pairs to breeding recipes
+     */
+    public AxolootlBreedingIndex getBreedingIndex() {
+        return breedingIndex.get();
+    }
+}
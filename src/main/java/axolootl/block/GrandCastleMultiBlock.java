@@ -33,7 +33,6 @@ public class GrandCastleMultiBlock extends WaterloggedHorizontalMultiBlock {
                 .setValue(WIDTH, 1)
                 .setValue(HEIGHT, 1)
                 .setValue(DEPTH, 1));
-        this.precalculateShapes();
     }
 
     //// METHODS ////
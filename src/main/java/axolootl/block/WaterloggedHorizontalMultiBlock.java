@@ -30,8 +30,6 @@ import net.minecraft.world.phys.shapes.EntityCollisionContext;
 import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
 
-import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -48,12 +46,19 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
     private static final Vec3i CENTER = new Vec3i(1, 1, 1);
     public static final Direction ORIGIN_DIRECTION = Direction.NORTH;
 
-    private final Map<BlockState, ShapeData> SHAPES = new HashMap<>();
-    private final Map<Direction, VoxelShape> CENTERED_VISUAL_SHAPES = new EnumMap<>(Direction.class);
-    private final Map<BlockState, VoxelShape> VISUAL_SHAPES = new HashMap<>();
+    /** The number of shapes for each facing direction, one for each [width, height, depth] index **/
+    private static final int SHAPES_PER_FACING = 27;
+    private static final int SHAPE_COUNT = SHAPES_PER_FACING * 4;
+
     private final Function<BlockState, ShapeData> shapes;
+    /** The shape data for each block state, created once and ordered by {@link #getShapeIndex(BlockState)} **/
+    private final ShapeData[] shapeData;
+    /** The visual outline for each block state, created once and ordered by {@link #getShapeIndex(BlockState)} **/
+    private final VoxelShape[] visualShapes;
 
     /**
+     * The shapes are created once for each facing direction and [width, height, depth] index, so
+     * the shape function must not depend on any other block state properties.
      * @param pProperties the block properties
      * @param shapes a function that creates {@link ShapeData} to be cached for later use
      */
@@ -66,7 +71,8 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
                 .setValue(WIDTH, 1)
                 .setValue(HEIGHT, 1)
                 .setValue(DEPTH, 1));
-        this.precalculateShapes();
+        this.shapeData = bakeShapeData();
+        this.visualShapes = bakeVisualShapes(this.shapeData);
     }
 
     //// METHODS ////
@@ -99,25 +105,42 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
                 .setValue(DEPTH, 1);
     }
 
-    protected void precalculateShapes() {
-        SHAPES.clear();
-        CENTERED_VISUAL_SHAPES.clear();
-        VISUAL_SHAPES.clear();
+    /**
+     * Creates the shape data for every facing direction and [width, height, depth] index
+     * @return an array of shape data ordered by {@link #getShapeIndex(BlockState)}
+     */
+    private ShapeData[] bakeShapeData() {
+        final ShapeData[] array = new ShapeData[SHAPE_COUNT];
+        for(Direction direction : Direction.Plane.HORIZONTAL) {
+            final BlockState facingBlockState = this.defaultBlockState().setValue(FACING, direction);
+            PositionIterator.accept(BlockPos.ZERO, (p, x, y, z) -> {
+                final BlockState blockState = facingBlockState.setValue(WIDTH, x).setValue(HEIGHT, y).setValue(DEPTH, z);
+                array[getShapeIndex(blockState)] = this.shapes.apply(blockState);
+            });
+        }
+        return array;
+    }
+
+    /**
+     * Creates the visual outline of the entire multiblock once, rotates it once for each facing direction,
+     * and moves it to the correct offset for each [width, height, depth] index
+     * @param shapeData the shape data as created by {@link #bakeShapeData()}
+     * @return an array of visual shapes ordered by {@link #getShapeIndex(BlockState)}
+     */
+    private VoxelShape[] bakeVisualShapes(final ShapeData[] shapeData) {
+        final VoxelShape[] array = new VoxelShape[SHAPE_COUNT];
         // calculate centered visual shapes
-        final BlockState centerBlockState = this.defaultBlockState().setValue(WIDTH, 1).setValue(HEIGHT, 1).setValue(DEPTH, 1);
-        final VoxelShape centeredShape = createVisualShape(centerBlockState);
-        CENTERED_VISUAL_SHAPES.putAll(ShapeUtils.rotateShapes(ORIGIN_DIRECTION, centeredShape));
-        // iterate all block states
-        for(BlockState blockState : this.stateDefinition.getPossibleStates()) {
-            // cache the individual shape
-            SHAPES.put(blockState, createShapeData(blockState));
+        final Map<Direction, VoxelShape> centeredShapes = ShapeUtils.rotateShapes(ORIGIN_DIRECTION, createVisualShape(shapeData));
+        for(Direction direction : Direction.Plane.HORIZONTAL) {
+            final BlockState facingBlockState = this.defaultBlockState().setValue(FACING, direction);
+            final VoxelShape centeredShape = centeredShapes.get(direction);
             // move the centered shape for the given rotation to the correct offset
-            Vec3i index = getIndex(blockState);
-            VoxelShape shape = CENTERED_VISUAL_SHAPES.get(blockState.getValue(FACING))
-                    .move(1 - index.getX(), 1 - index.getY(), 1 - index.getZ());
-            // cache the offset visual shape
-            VISUAL_SHAPES.put(blockState, shape);
+            PositionIterator.accept(BlockPos.ZERO, (p, x, y, z) -> {
+                final BlockState blockState = facingBlockState.setValue(WIDTH, x).setValue(HEIGHT, y).setValue(DEPTH, z);
+                array[getShapeIndex(blockState)] = centeredShape.move(1 - x, 1 - y, 1 - z);
+            });
         }
+        return array;
     }
 
     /**
@@ -125,17 +148,21 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
      * @return the cached visual outline for the given block state
      */
     public VoxelShape getVisualShape(final BlockState blockState) {
-        return VISUAL_SHAPES.get(blockState);
+        return visualShapes[getShapeIndex(blockState)];
     }
 
-    private VoxelShape createVisualShape(final BlockState blockState) {
-        final Vec3i offset = getIndex(blockState);
+    /**
+     * @param shapeData the shape data as created by {@link #bakeShapeData()}
+     * @return the visual outline of the entire multiblock facing the {@link #ORIGIN_DIRECTION}, relative to the center block
+     */
+    private VoxelShape createVisualShape(final ShapeData[] shapeData) {
+        final BlockState blockState = this.defaultBlockState().setValue(FACING, ORIGIN_DIRECTION);
         VoxelShape shape = Shapes.empty();
         for(int x = 0; x < 3; x++) {
             for(int y = 0; y < 3; y++) {
                 for(int z = 0; z < 3; z++) {
                     BlockState b = blockState.setValue(WIDTH, x).setValue(HEIGHT, y).setValue(DEPTH, z);
-                    shape = ShapeUtils.orUnoptimized(shape, getOrCreateShapeData(b).getCollisionShape().move(x - offset.getX(), y - offset.getY(), z - offset.getZ()));
+                    shape = ShapeUtils.orUnoptimized(shape, shapeData[getShapeIndex(b)].getCollisionShape().move(x - 1, y - 1, z - 1));
                 }
             }
         }
@@ -146,23 +173,17 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
      * @param blockState the block state
      * @return the cached shape data for the given block state
      */
-    protected ShapeData getOrCreateShapeData(final BlockState blockState) {
-        if(!SHAPES.containsKey(blockState)) {
-            SHAPES.put(blockState, createShapeData(blockState));
-        }
-        return SHAPES.get(blockState);
+    public ShapeData getShapeData(final BlockState blockState) {
+        return shapeData[getShapeIndex(blockState)];
     }
 
     /**
      * @param blockState the block state
-     * @return the cached shape data for the given block state
+     * @return the index of the shape data for the given facing direction and [width, height, depth] index
      */
-    public ShapeData getShapeData(final BlockState blockState) {
-        return SHAPES.get(blockState);
-    }
-
-    private ShapeData createShapeData(final BlockState blockState) {
-        return this.shapes.apply(blockState);
+    private static int getShapeIndex(final BlockState blockState) {
+        return blockState.getValue(FACING).get2DDataValue() * SHAPES_PER_FACING
+                + (blockState.getValue(HEIGHT) * 3 + blockState.getValue(WIDTH)) * 3 + blockState.getValue(DEPTH);
     }
 
     @Override
@@ -182,7 +203,6 @@ public class WaterloggedHorizontalMultiBlock extends WaterloggedHorizontalBlock
     @Override
     public VoxelShape getShape(BlockState pState, BlockGetter pLevel, BlockPos pPos, CollisionContext pContext) {
         return getVisualShape(pState);
-        //return getOrCreateShapeData(pState).getCollisionShape();
     }
 
     @Override
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import axolootl.util.TankMultiblock;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Tracks which controllers have tanks in each loaded chunk so that block changes
+ * can be forwarded to the affected controllers instead of rescanning every tank.
+ */
+public final class AquariumChangeTracker {
+
+    /** Map of level to packed chunk position to controllers whose tanks overlap that chunk **/
+    private static final Map<LevelAccessor, Long2ObjectMap<List<ControllerBlockEntity>>> CONTROLLERS = new WeakHashMap<>();
+
+    private AquariumChangeTracker() {}
+
+    /**
+     * Starts forwarding block changes inside the tank to the given controller
+     * @param level the level
+     * @param controller the controller block entity
+     * @param size the tank size
+     */
+    public static void add(final LevelAccessor level, final ControllerBlockEntity controller, final TankMultiblock.Size size) {
+        final Long2ObjectMap<List<ControllerBlockEntity>> map = CONTROLLERS.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>());
+        final ChunkPos min = size.getMinChunk();
+        final ChunkPos max = size.getMaxChunk();
+        for(int x = min.x; x <= max.x; x++) {
+            for(int z = min.z; z <= max.z; z++) {
+                final List<ControllerBlockEntity> list = map.computeIfAbsent(ChunkPos.asLong(x, z), l -> new ArrayList<>(1));
+                if(!list.contains(controller)) {
+                    list.add(controller);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops forwarding block changes to the given controller
+     * @param level the level
+     * @param controller the controller block entity
+     */
+    public static void remove(final LevelAccessor level, final ControllerBlockEntity controller) {
+        final Long2ObjectMap<List<ControllerBlockEntity>> map = CONTROLLERS.get(level);
+        if(null == map) {
+            return;
+        }
+        map.values().removeIf(list -> list.remove(controller) && list.isEmpty());
+    }
+
+    /**
+     * Notifies any controllers whose tanks contain the given position
+     * @param level the level
+     * @param pos the block position that changed
+     */
+    public static void onBlockChanged(final LevelAccessor level, final BlockPos pos) {
+        final Long2ObjectMap<List<ControllerBlockEntity>> map = CONTROLLERS.get(level);
+        if(null == map || map.isEmpty()) {
+            return;
+        }
+        final List<ControllerBlockEntity> list = map.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        if(null == list) {
+            return;
+        }
+        for(int i = 0, n = list.size(); i < n; i++) {
+            list.get(i).onBlockChanged(pos);
+        }
+    }
+
+    /**
+     * Removes all tracked controllers for the given level
+     * @param level the level
+     */
+    public static void clear(final LevelAccessor level) {
+        CONTROLLERS.remove(level);
+    }
+}
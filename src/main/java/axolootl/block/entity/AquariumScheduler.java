@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import axolootl.Axolootl;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Limits the time that controllers in each level spend on deferrable work each tick.
+ * Controllers that do not fit in the budget are deferred to a later tick, and a controller
+ * that was deferred for {@link #MAX_DEFERRED_TICKS} ticks in a row runs regardless of the budget.
+ * Controllers that were deferred in the previous tick have part of the budget reserved for them, equal to the time
+ * they spent the last time they ran, so that they run before other controllers instead of the budget going to the
+ * first controllers to tick. Any budget that is not reserved can be used by any controller.
+ */
+public final class AquariumScheduler {
+
+    /** The maximum number of consecutive ticks that a controller can be deferred **/
+    public static final int MAX_DEFERRED_TICKS = 20;
+
+    /** Map of level to the time spent by controllers in the current tick **/
+    private static final Map<LevelAccessor, Budget> BUDGETS = new WeakHashMap<>();
+
+    private AquariumScheduler() {}
+
+    /**
+     * @param pos the controller position
+     * @return a stable offset used to spread periodic work across game ticks
+     */
+    public static long getPhaseOffset(final BlockPos pos) {
+        return HashCommon.mix(pos.asLong()) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param level the level
+     * @param controller the controller block entity
+     * @return true if the controller should run deferrable work this tick
+     */
+    public static boolean tryBegin(final Level level, final ControllerBlockEntity controller) {
+        final long limit = Axolootl.CONFIG.AQUARIUM_TICK_BUDGET.get() * 1000L;
+        // verify budget is enabled
+        if(limit <= 0) {
+            return true;
+        }
+        final Budget budget = getBudget(level);
+        // release the reservation of a controller that was deferred in the previous tick
+        final boolean isWaiting = budget.waiting.containsKey(controller);
+        if(isWaiting) {
+            budget.reservedNanos -= budget.waiting.removeLong(controller);
+        }
+        // verify budget remains, excluding the budget reserved for other controllers, or the controller waited too long
+        final long available = isWaiting ? limit : limit - budget.reservedNanos;
+        if(budget.usedNanos < available || controller.deferredTicks >= MAX_DEFERRED_TICKS) {
+            controller.deferredTicks = 0;
+            return true;
+        }
+        controller.deferredTicks++;
+        budget.nextWaiting.put(controller, controller.lastScheduledNanos);
+        return false;
+    }
+
+    /**
+     * @param level the level
+     * @param controller the controller block entity
+     * @param nanos the time spent by the controller on deferrable work
+     */
+    public static void end(final Level level, final ControllerBlockEntity controller, final long nanos) {
+        getBudget(level).usedNanos += nanos;
+        controller.lastScheduledNanos = nanos;
+    }
+
+    /**
+     * Removes the budget for the given level
+     * @param level the level
+     */
+    public static void clear(final LevelAccessor level) {
+        BUDGETS.remove(level);
+    }
+
+    private static Budget getBudget(final Level level) {
+        final Budget budget = BUDGETS.computeIfAbsent(level, l -> new Budget());
+        // reset at the start of each tick
+        if(budget.gameTime != level.getGameTime()) {
+            budget.gameTime = level.getGameTime();
+            budget.usedNanos = 0;
+            // reserve budget for the controllers that were deferred in the previous tick
+            final Reference2LongMap<ControllerBlockEntity> waiting = budget.waiting;
+            waiting.clear();
+            budget.waiting = budget.nextWaiting;
+            budget.nextWaiting = waiting;
+            budget.reservedNanos = 0;
+            for(long nanos : budget.waiting.values()) {
+                budget.reservedNanos += nanos;
+            }
+        }
+        return budget;
+    }
+
+    private static final class Budget {
+        private long gameTime = Long.MIN_VALUE;
+        private long usedNanos;
+        /** The time reserved for the controllers that were deferred in the previous tick and did not run yet **/
+        private long reservedNanos;
+        /** Map of controllers that were deferred in the previous tick and did not run yet to their reserved time **/
+        private Reference2LongMap<ControllerBlockEntity> waiting = new Reference2LongOpenHashMap<>();
+        /** Map of controllers that were deferred in the current tick to the time to reserve for them **/
+        private Reference2LongMap<ControllerBlockEntity> nextWaiting = new Reference2LongOpenHashMap<>();
+    }
+}
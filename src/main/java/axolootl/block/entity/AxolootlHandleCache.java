@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import axolootl.entity.IAxolootl;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Holds weak references to the axolootls that are tracked by a controller. Axolootls register themselves
+ * when their controller is set and unregister when it is cleared or they leave the level. Tracked axolootls
+ * that are not registered, such as after a chunk reload, are resolved by UUID as a fallback.
+ */
+public final class AxolootlHandleCache {
+
+    private final Map<UUID, WeakReference<IAxolootl>> handles = new HashMap<>();
+    /** The resolved axolootls, rebuilt only when the tracked axolootls change or one of them is no longer valid **/
+    private final List<IAxolootl> live = new ArrayList<>();
+    private final List<IAxolootl> liveView = Collections.unmodifiableList(live);
+
+    /**
+     * @param axolootl the axolootl to register
+     */
+    public void register(final IAxolootl axolootl) {
+        handles.put(axolootl.getEntity().getUUID(), new WeakReference<>(axolootl));
+    }
+
+    /**
+     * @param axolootl the axolootl to unregister
+     */
+    public void unregister(final IAxolootl axolootl) {
+        final UUID uuid = axolootl.getEntity().getUUID();
+        final WeakReference<IAxolootl> reference = handles.get(uuid);
+        if(reference != null && (reference.get() == axolootl || null == reference.get())) {
+            handles.remove(uuid);
+        }
+    }
+
+    /**
+     * Removes all references
+     */
+    public void clear() {
+        handles.clear();
+        live.clear();
+    }
+
+    /**
+     * @param level the server level
+     * @param tracked the tracked axolootl IDs
+     * @param invalid a collection to fill with the tracked axolootl IDs that could not be resolved
+     * @return an unmodifiable view of the resolved axolootls, valid until the next call to this method
+     */
+    public List<IAxolootl> resolve(final ServerLevel level, final Set<UUID> tracked, final Collection<UUID> invalid) {
+        if(!isValid(tracked)) {
+            rebuild(level, tracked, invalid);
+        }
+        return liveView;
+    }
+
+    /**
+     * @param tracked the tracked axolootl IDs
+     * @return true if the live list contains a valid axolootl for exactly the tracked IDs
+     */
+    private boolean isValid(final Set<UUID> tracked) {
+        // the live list has no duplicates, so matching sizes and containment means the sets are equal
+        if(live.size() != tracked.size()) {
+            return false;
+        }
+        for(int i = 0, n = live.size(); i < n; i++) {
+            final LivingEntity entity = live.get(i).getEntity();
+            if(!isAlive(entity) || !tracked.contains(entity.getUUID())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuild(final ServerLevel level, final Set<UUID> tracked, final Collection<UUID> invalid) {
+        live.clear();
+        handles.keySet().retainAll(tracked);
+        for(UUID uuid : tracked) {
+            final IAxolootl axolootl = get(level, uuid);
+            if(null == axolootl) {
+                invalid.add(uuid);
+            } else {
+                live.add(axolootl);
+            }
+        }
+    }
+
+    @Nullable
+    private IAxolootl get(final ServerLevel level, final UUID uuid) {
+        // load registered reference
+        final WeakReference<IAxolootl> reference = handles.get(uuid);
+        final IAxolootl cached = (reference != null) ? reference.get() : null;
+        if(cached != null && isAlive(cached.getEntity())) {
+            return cached;
+        }
+        // fallback to query the entity by UUID
+        final Entity entity = level.getEntity(uuid);
+        if(entity instanceof IAxolootl iaxolootl && isAlive(iaxolootl.getEntity())) {
+            handles.put(uuid, new WeakReference<>(iaxolootl));
+            return iaxolootl;
+        }
+        handles.remove(uuid);
+        return null;
+    }
+
+    private static boolean isAlive(final LivingEntity entity) {
+        return !entity.isRemoved() && !entity.isDeadOrDying();
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import axolootl.data.aquarium_modifier.AquariumModifier;
+import axolootl.data.aquarium_modifier.ModifierSettings;
+import axolootl.entity.IAxolootl;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Running totals of the speed bonuses granted by the active modifiers and tracked axolootls of a controller.
+ * Each modifier and axolootl contribution is stored so that it can be replaced or removed in constant time.
+ * Floating point error may accumulate over many updates, so the totals should be rebuilt periodically.
+ */
+final class BonusTotals {
+
+    private final Map<BlockPos, Contribution> modifiers = new HashMap<>();
+    private final Map<UUID, Contribution> axolootls = new HashMap<>();
+
+    private double generationSpeed;
+    private double feedSpeed;
+    private double breedSpeed;
+    /** The number of contributions that enable mob resources **/
+    private int mobResources;
+    /** The number of contributions that enable mob breeding **/
+    private int mobBreeding;
+
+    //// MODIFIERS ////
+
+    /**
+     * @param pos the position of an active modifier
+     * @param modifier the modifier
+     */
+    void putModifier(final BlockPos pos, final AquariumModifier modifier) {
+        final ModifierSettings settings = modifier.getSettings();
+        final Contribution contribution = new Contribution(settings.getGenerationSpeed(), settings.getFeedSpeed(), settings.getBreedSpeed(),
+                settings.isEnableMobResources(), settings.isEnableMobBreeding());
+        subtract(modifiers.put(pos.immutable(), contribution));
+        add(contribution);
+    }
+
+    /**
+     * @param pos the position of a modifier that is no longer active
+     */
+    void removeModifier(final BlockPos pos) {
+        subtract(modifiers.remove(pos));
+    }
+
+    //// AXOLOOTLS ////
+
+    /**
+     * @param axolootl an axolootl that is tracked or whose bonuses changed
+     */
+    void putAxolootl(final IAxolootl axolootl) {
+        final Contribution contribution = new Contribution(axolootl.getGenerationSpeed(), axolootl.getFeedSpeed(), axolootl.getBreedSpeed(), false, false);
+        subtract(axolootls.put(axolootl.getEntity().getUUID(), contribution));
+        add(contribution);
+    }
+
+    /**
+     * @param uuid the ID of an axolootl that is no longer tracked
+     */
+    void removeAxolootl(final UUID uuid) {
+        subtract(axolootls.remove(uuid));
+    }
+
+    /**
+     * Removes all contributions
+     */
+    void clear() {
+        modifiers.clear();
+        axolootls.clear();
+        generationSpeed = feedSpeed = breedSpeed = 0;
+        mobResources = mobBreeding = 0;
+    }
+
+    //// GETTERS ////
+
+    double getGenerationSpeed() {
+        return generationSpeed;
+    }
+
+    double getFeedSpeed() {
+        return feedSpeed;
+    }
+
+    double getBreedSpeed() {
+        return breedSpeed;
+    }
+
+    boolean isEnableMobResources() {
+        return mobResources > 0;
+    }
+
+    boolean isEnableMobBreeding() {
+        return mobBreeding > 0;
+    }
+
+    //// HELPER METHODS ////
+
+    private void add(final Contribution contribution) {
+        generationSpeed += contribution.generation;
+        feedSpeed += contribution.feed;
+        breedSpeed += contribution.breed;
+        mobResources += contribution.mobResources ? 1 : 0;
+        mobBreeding += contribution.mobBreeding ? 1 : 0;
+    }
+
+    private void subtract(@Nullable final Contribution contribution) {
+        if(null == contribution) {
+            return;
+        }
+        generationSpeed -= contribution.generation;
+        feedSpeed -= contribution.feed;
+        breedSpeed -= contribution.breed;
+        mobResources -= contribution.mobResources ? 1 : 0;
+        mobBreeding -= contribution.mobBreeding ? 1 : 0;
+    }
+
+    private static record Contribution(double generation, double feed, double breed, boolean mobResources, boolean mobBreeding) {}
+}
@@ -10,12 +10,18 @@ import axolootl.AxRegistry;
 import axolootl.Axolootl;
 import axolootl.data.aquarium_tab.IAquariumTab;
 import axolootl.data.axolootl_variant.AxolootlVariant;
+import axolootl.data.axolootl_variant.AxolootlVariantSnapshot;
 import axolootl.data.aquarium_modifier.AquariumModifier;
 import axolootl.data.aquarium_modifier.AquariumModifierContext;
+import axolootl.data.aquarium_modifier.ModifierPositionIndex;
+import axolootl.data.breeding.AxolootlBreedingIndex;
+import axolootl.data.breeding.AxolootlBreedingWrapper;
 import axolootl.data.resource_generator.ResourceGenerator;
 import axolootl.data.resource_generator.ResourceTypes;
 import axolootl.entity.IAxolootl;
 import axolootl.menu.ControllerMenu;
+import axolootl.network.AxNetwork;
+import axolootl.network.ClientBoundControllerSyncPacket;
 import axolootl.util.BreedStatus;
 import axolootl.util.FeedStatus;
 import axolootl.util.TankMultiblock;
@@ -31,7 +37,6 @@ import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.Vec3i;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.IntArrayTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtOps;
 import net.minecraft.nbt.NbtUtils;
@@ -42,12 +47,12 @@ import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.tags.FluidTags;
 import net.minecraft.tags.TagKey;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
-import net.minecraft.util.Tuple;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.InteractionResultHolder;
 import net.minecraft.world.MenuProvider;
@@ -63,11 +68,12 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.phys.AABB;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.registries.RegistryObject;
 
 import javax.annotation.Nullable;
@@ -78,6 +84,8 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -108,6 +116,14 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     public static final double OUTSIDE_ITERATOR_SCAN = 0.4D;
     /** The percentage of allotted blocks to be scanned by the inside iterator in a single tick **/
     public static final double INSIDE_ITERATOR_SCAN = 0.6D;
+    /** The maximum number of changed block positions to queue before falling back to a full scan **/
+    public static final int MAX_CHANGED_POSITIONS = 4096;
+    /** The number of ticks between full scans, to detect changes that were not reported by block updates **/
+    public static final long FULL_SCAN_INTERVAL = MODIFIER_VALIDATE_INTERVAL * 100;
+    /** The number of ticks between attempts to insert held resources while the outputs are full **/
+    public static final long OUTPUT_RECHECK_PERIOD = 100;
+    /** The number of ticks between full recalculations of the bonus totals **/
+    public static final long BONUS_RECONCILE_INTERVAL = 1200;
 
     // RESOURCES //
     private double generationSpeed;
@@ -116,6 +132,8 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     private boolean enableMobResources;
     private boolean enableMobBreeding;
     private boolean isOutputFull;
+    /** Generated resources that did not fit in any output, to be inserted before generating more **/
+    private final List<ItemStack> overflow = new ArrayList<>();
     private boolean isInsufficientPower;
     private boolean isFeedInputEmpty;
     private boolean isBreedInputEmpty;
@@ -134,12 +152,14 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     private FeedStatus feedStatus;
 
     // ITERATORS //
-    /** Used to periodically query blocks on the outside of the tank **/
+    /** Used to query blocks on the outside of the tank during a full scan **/
     @Nullable
     private Iterator<BlockPos> outsideIterator;
-    /** Used to periodically query blocks on the inside of the tank **/
+    /** Used to query blocks on the inside of the tank during a full scan **/
     @Nullable
     private Iterator<BlockPos> insideIterator;
+    /** The block positions inside the tank bounds that changed since they were last scanned **/
+    private final Set<BlockPos> changedPositions = new LinkedHashSet<>();
 
     // TANK //
     @Nullable
@@ -149,6 +169,51 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     private final Set<BlockPos> activeAquariumModifiers = new HashSet<>();
     private final Map<UUID, ResourceLocation> trackedAxolootls = new HashMap<>();
 
+    // SYNC //
+    /** The version of the client-visible state, incremented each time an update packet is created **/
+    private int syncVersion;
+    /** The client-visible state that was sent in the most recent update packet, used as the base for the next delta **/
+    @Nullable
+    private ClientBoundControllerSyncPacket.State syncedState;
+
+    // NBT //
+    /** The most recently encoded persistent collections, reused until the collections change **/
+    private final ControllerTagCache tagCache = new ControllerTagCache();
+    /** Incremented each time the tracked axolootls are changed **/
+    private int axolootlsVersion;
+    /** Incremented each time the aquarium modifiers or active aquarium modifiers are changed **/
+    private int modifiersVersion;
+    /** Incremented each time the tracked blocks are changed **/
+    private int trackedBlocksVersion;
+
+    // ENERGY //
+    /** The energy capabilities of the energy inputs and modifiers, removed when invalidated **/
+    private final EnergyHandleCache energyHandles = new EnergyHandleCache();
+
+    // AXOLOOTLS //
+    /** The direct references to tracked axolootls, with UUID lookup as a fallback **/
+    private final AxolootlHandleCache axolootlHandles = new AxolootlHandleCache();
+
+    // BONUSES //
+    /** The running totals of modifier and axolootl bonuses **/
+    private final BonusTotals bonusTotals = new BonusTotals();
+    /** True to rebuild the bonus totals from scratch the next time bonuses are calculated **/
+    private boolean reconcileBonuses = true;
+
+    // SCHEDULER //
+    /** The offset used to spread periodic work across game ticks **/
+    private final long phaseOffset;
+    /** The game time when deferrable work last ran **/
+    private long lastScheduledTime = Long.MIN_VALUE;
+    /** The number of consecutive ticks that deferrable work was deferred **/
+    int deferredTicks;
+    /** The time spent on deferrable work the last time it ran **/
+    long lastScheduledNanos;
+    /** The game time of the most recent tick **/
+    private long lastTickTime = Long.MIN_VALUE;
+    /** The number of ticks that were missed and have not been caught up **/
+    private long missedTicks;
+
     // OTHER //
 
     public final BiPredicate<BlockPos, AquariumModifier> activePredicate = (p, o) -> this.activeAquariumModifiers.contains(p);
@@ -166,6 +231,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         this.feedTime = 1;
         this.breedTime = 1;
         this.forceCalculateBonuses = true;
+        this.phaseOffset = AquariumScheduler.getPhaseOffset(pPos);
     }
 
     public static void tick(final Level levelAccessor, final BlockPos pos, final BlockState state, final ControllerBlockEntity self) {
@@ -174,20 +240,36 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             return;
         }
         boolean markDirty = false;
+        // accumulate ticks that were missed since the previous tick
+        final long gameTime = level.getGameTime();
+        if(self.lastTickTime != Long.MIN_VALUE && gameTime - self.lastTickTime > 1) {
+            self.missedTicks += gameTime - self.lastTickTime - 1;
+        }
+        self.lastTickTime = gameTime;
+        // determine whether deferrable work fits in the tick budget
+        final boolean scheduled = AquariumScheduler.tryBegin(level, self);
+        final long startNanos = scheduled ? Util.getNanos() : 0;
+        if(scheduled && self.lastScheduledTime == Long.MIN_VALUE) {
+            self.lastScheduledTime = level.getGameTime() - 1;
+        }
         // update status
         level.getProfiler().push("axolootlStatus");
         markDirty |= self.updateStatus(level);
         level.getProfiler().pop();
         // active updates
-        if(self.hasTank()) {
+        if(scheduled && self.hasTank()) {
             // validate tank size
             level.getProfiler().push("aquariumTankSize");
             int blocksToScan = Axolootl.CONFIG.TANK_MULTIBLOCK_UPDATE_CAP.get();
+            if(self.isPhaseDue(level, FULL_SCAN_INTERVAL) && !self.isFullScanInProgress()) {
+                self.requestFullScan();
+            }
             markDirty |= self.iterateOutside(level, Mth.ceil(blocksToScan * OUTSIDE_ITERATOR_SCAN));
             markDirty |= self.validateTrackedBlocks(level);
             // search for, validate, and apply modifiers
             level.getProfiler().popPush("aquariumModifiers");
             markDirty |= self.iterateInside(level, Mth.ceil(blocksToScan * INSIDE_ITERATOR_SCAN));
+            markDirty |= self.iterateChanged(level, blocksToScan);
             markDirty |= self.validateUpdateModifiers(level);
             level.getProfiler().pop();
         }
@@ -196,27 +278,49 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             // distribute energy to modifiers
             level.getProfiler().push("aquariumEnergy");
             markDirty |= self.distributeEnergyToModifiers(level);
-            // validate and search for axolootl entities
-            level.getProfiler().popPush("aquariumEntities");
-            markDirty |= self.validateAxolootls(level);
-            markDirty |= self.findAxolootls(level);
-            level.getProfiler().popPush("aquariumBonuses");
-            if(self.forceCalculateBonuses) {
-                markDirty |= self.applyActiveModifiers(level);
-                self.forceCalculateBonuses = false;
+            if(scheduled) {
+                // validate and search for axolootl entities
+                level.getProfiler().popPush("aquariumEntities");
+                markDirty |= self.validateAxolootls(level);
+                markDirty |= self.findAxolootls(level);
+                level.getProfiler().popPush("aquariumBonuses");
+                if(self.isPhaseDue(level, BONUS_RECONCILE_INTERVAL)) {
+                    self.reconcileBonuses = true;
+                    self.forceCalculateBonuses = true;
+                }
+                if(self.forceCalculateBonuses) {
+                    markDirty |= self.applyActiveModifiers(level);
+                    self.forceCalculateBonuses = false;
+                }
             }
             // update tickers
             level.getProfiler().popPush("aquariumTickers");
             markDirty |= self.updateTickers(level);
-            // feed, breed, and generate resources
-            level.getProfiler().popPush("aquariumFeed");
-            markDirty |= self.feed(level);
-            level.getProfiler().popPush("aquariumBreed");
-            markDirty |= self.breed(level);
-            level.getProfiler().popPush("aquariumResources");
-            markDirty |= self.generateResources(level);
+            if(scheduled && self.missedTicks > 0) {
+                level.getProfiler().popPush("aquariumCatchUp");
+                markDirty |= self.catchUp(level, self.missedTicks);
+                self.missedTicks = 0;
+            }
+            if(scheduled) {
+                // feed, breed, and generate resources
+                level.getProfiler().popPush("aquariumFeed");
+                markDirty |= self.feed(level);
+                level.getProfiler().popPush("aquariumBreed");
+                markDirty |= self.breed(level);
+                level.getProfiler().popPush("aquariumResources");
+                markDirty |= self.generateResources(level);
+            }
             level.getProfiler().pop();
         }
+        // missed ticks do not count while the tank is not active
+        if(!self.getTankStatus().isActive()) {
+            self.missedTicks = 0;
+        }
+        // report time spent on deferrable work
+        if(scheduled) {
+            self.lastScheduledTime = level.getGameTime();
+            AquariumScheduler.end(level, self, Util.getNanos() - startNanos);
+        }
         // mark changed and send update
         if(markDirty) {
             self.setChanged();
@@ -226,6 +330,18 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
 
     //// HELPER METHODS ////
 
+    /**
+     * Determines if periodic work is due. Each controller uses its own phase offset so that controllers
+     * do not all run the same work on the same tick, and work that was due while the controller was
+     * deferred by the {@link AquariumScheduler} runs on the next scheduled tick.
+     * @param level the level
+     * @param interval the number of ticks between runs
+     * @return true if a multiple of the interval, offset by the phase, passed since the last scheduled tick
+     */
+    private boolean isPhaseDue(final Level level, final long interval) {
+        return Math.floorDiv(level.getGameTime() + phaseOffset, interval) != Math.floorDiv(lastScheduledTime + phaseOffset, interval);
+    }
+
     /**
      * @param size the tank multiblock size
      * @return the maximum entity count of a tank with the given size
@@ -281,6 +397,48 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         return flag;
     }
 
+    /**
+     * Fast-forwards the tickers by the number of ticks that the controller did not run, such as when the
+     * tank was not loaded, and generates the resources for any elapsed cycles in a single batch.
+     * The number of ticks and generation cycles are capped, and any resources that do not fit are held
+     * up to the overflow capacity. Feeding and breeding are ready at most once after catching up.
+     * @param level the server level
+     * @param missedTicks the number of ticks that the controller did not run
+     * @return true if there are any changes
+     */
+    private boolean catchUp(ServerLevel level, final long missedTicks) {
+        final int maxCycles = Axolootl.CONFIG.CATCH_UP_MAX_CYCLES.get();
+        if(maxCycles <= 0 || missedTicks <= 0) {
+            return false;
+        }
+        final long ticks = Math.min(missedTicks, maxCycles * Axolootl.CONFIG.BASE_GENERATION_PERIOD.get());
+        boolean flag = false;
+        // advance breed and feed tickers
+        if(breedTime > 0 && breedSpeed > 0) {
+            breedTime = Math.max(0, breedTime - ticks * getBreedTickAmount());
+            flag = true;
+        }
+        if(feedTime > 0 && feedSpeed > 0) {
+            feedTime = Math.max(0, feedTime - ticks * getFeedTickAmount());
+            flag = true;
+        }
+        // determine the number of elapsed generation cycles
+        final long amount = ticks * getResourceGenerationTickAmount();
+        if(!(generationSpeed > 0) || amount <= 0) {
+            return flag;
+        }
+        if(amount < resourceGenerationTime) {
+            resourceGenerationTime -= amount;
+            return true;
+        }
+        final long period = Math.max(1, Axolootl.CONFIG.BASE_GENERATION_PERIOD.get() * BASE_SPEED_DECREMENT);
+        final long cycles = 1 + (amount - resourceGenerationTime) / period;
+        // generate resources for all elapsed cycles
+        resourceGenerationTime = 0;
+        generateResources(level, (int) Math.min(maxCycles, cycles));
+        return true;
+    }
+
     //// MODIFIERS ////
 
     /**
@@ -288,43 +446,30 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @param level the level
      */
     private boolean applyActiveModifiers(final ServerLevel level) {
+        // rebuild totals to correct any drift
+        if(reconcileBonuses) {
+            reconcileBonuses(level);
+            reconcileBonuses = false;
+        }
         // calculate generation, feed, and breed speeds
         double generationSpeed = BASE_GENERATION_SPEED;
         double feedSpeed = BASE_FEED_SPEED;
         double breedSpeed = BASE_BREED_SPEED;
         boolean enableMobResources = false;
         boolean enableMobBreeding = false;
-        // iterate active modifiers
-        for(AquariumModifier entry : resolveModifiers(level.registryAccess(), activePredicate).values()) {
-            // add generation speed
-            if(tankStatus.isActive()) {
-                generationSpeed += entry.getSettings().getGenerationSpeed();
-                enableMobResources |= entry.getSettings().isEnableMobResources();
-            }
-            // add feed speed
-            if(feedStatus.isActive()) {
-                feedSpeed += entry.getSettings().getFeedSpeed();
-            }
-            // add breed speed
-            if(breedStatus.isActive()) {
-                breedSpeed += entry.getSettings().getBreedSpeed();
-                enableMobBreeding |= entry.getSettings().isEnableMobBreeding();
-            }
+        // add generation speed
+        if(tankStatus.isActive()) {
+            generationSpeed += bonusTotals.getGenerationSpeed();
+            enableMobResources = bonusTotals.isEnableMobResources();
         }
-        // iterate axolootls
-        for(IAxolootl entry : resolveAxolootls(level)) {
-            // add generation speed
-            if(tankStatus.isActive()) {
-                generationSpeed += entry.getGenerationSpeed();
-            }
-            // add feed speed
-            if(feedStatus.isActive()) {
-                feedSpeed += entry.getFeedSpeed();
-            }
-            // add breed speed
-            if(breedStatus.isActive()) {
-                breedSpeed += entry.getBreedSpeed();
-            }
+        // add feed speed
+        if(feedStatus.isActive()) {
+            feedSpeed += bonusTotals.getFeedSpeed();
+        }
+        // add breed speed
+        if(breedStatus.isActive()) {
+            breedSpeed += bonusTotals.getBreedSpeed();
+            enableMobBreeding = bonusTotals.isEnableMobBreeding();
         }
         // determine results
         boolean isDirty = notEquals(this.generationSpeed, generationSpeed) || notEquals(this.feedSpeed, feedSpeed) || notEquals(this.breedSpeed, breedSpeed)
@@ -337,6 +482,22 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         return isDirty;
     }
 
+    /**
+     * Recalculates the bonus totals from every active modifier and tracked axolootl
+     * @param level the level
+     */
+    private void reconcileBonuses(final ServerLevel level) {
+        bonusTotals.clear();
+        // iterate active modifiers
+        for(Map.Entry<BlockPos, AquariumModifier> entry : resolveModifiers(level.registryAccess(), activePredicate).entrySet()) {
+            bonusTotals.putModifier(entry.getKey(), entry.getValue());
+        }
+        // iterate axolootls
+        for(IAxolootl entry : resolveAxolootls(level)) {
+            bonusTotals.putAxolootl(entry);
+        }
+    }
+
     /**
      * @param registryAccess the registry access
      * @param requireActive true to only consider active modifiers
@@ -387,12 +548,28 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         if(resourceGenerationTime > 0 || !(generationSpeed > 0)) {
             return false;
         }
+        return generateResources(level, 1);
+    }
+
+    /**
+     * @param level the server level
+     * @param cycles the number of generation cycles for each axolootl, where more than one cycle is approximated from the expected yield
+     * @return true if there are any changes, such as tickers resetting or the axolootl variant map changing
+     **/
+    private boolean generateResources(ServerLevel level, final int cycles) {
+        // insert held resources before generating more
+        if(!overflow.isEmpty() && !flushOverflow()) {
+            // outputs are still full, so do not spend energy or roll for resources that cannot be stored
+            resourceGenerationTime = 100L * BASE_SPEED_DECREMENT;
+            return true;
+        }
         // create resource list
         final List<ItemStack> resources = new ArrayList<>();
         final Set<UUID> invalid = new HashSet<>();
         // resolve axolootls
         final Collection<IAxolootl> axolootls = resolveAxolootls(level, i -> !i.getEntity().isBaby());
-        // iterate over axolootl variants to generate resources
+        // group axolootls by variant so that each variant is rolled once for all of its axolootls
+        final Map<AxolootlVariant, List<IAxolootl>> groups = new LinkedHashMap<>();
         for(IAxolootl entry : axolootls) {
             // verify axolootl can generate resources
             if(!entry.isResourceGenerationCandidate(level)) {
@@ -404,34 +581,109 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
                 invalid.add(entry.getEntity().getUUID());
                 continue;
             }
-            // verify energy
-            int cost = oVariant.get().getEnergyCost();
-            // load generator
-            ResourceGenerator gen = oVariant.get().getResourceGenerator().value();
             // verify mob resources are enabled
-            if(gen.is(ResourceTypes.MOB) && !this.enableMobResources) {
+            if(oVariant.get().getResourceGenerator().value().is(ResourceTypes.MOB) && !this.enableMobResources) {
                 continue;
             }
-            // generate resources
-            Collection<ItemStack> generatedResources = gen.getRandomEntries(entry.getEntity(), entry.getEntity().getRandom());
-            // remove energy
-            if(!generatedResources.isEmpty() && cost > 0 && transferEnergy(level, this.getBlockPos(), cost, true) < cost) {
+            groups.computeIfAbsent(oVariant.get(), v -> new ArrayList<>()).add(entry);
+        }
+        // determine the energy cost of each variant and the total cost
+        long totalCost = 0;
+        for(Map.Entry<AxolootlVariant, List<IAxolootl>> group : groups.entrySet()) {
+            totalCost += (long) Math.max(0, group.getKey().getEnergyCost()) * cycles * group.getValue().size();
+        }
+        // determine the available energy, up to the total cost
+        final List<IEnergyStorage> sources = totalCost > 0 ? collectEnergySources(level) : List.of();
+        long available = totalCost > 0 ? simulateExtractEnergy(sources, (int) Math.min(Integer.MAX_VALUE, totalCost)) : 0;
+        if(available < totalCost) {
+            setInsufficientPower(true);
+            this.forceCalculateBonuses();
+        }
+        // generate resources for each variant, only for the axolootls that can be paid for
+        long planned = 0;
+        for(Map.Entry<AxolootlVariant, List<IAxolootl>> group : groups.entrySet()) {
+            // determine the number of axolootls that can be paid for
+            final long cost = (long) Math.max(0, group.getKey().getEnergyCost()) * cycles;
+            final int count = group.getValue().size();
+            final int affordable = (cost > 0) ? (int) Math.min(count, available / cost) : count;
+            if(affordable <= 0) {
                 break;
             }
-            // add generated resources to list
-            resources.addAll(generatedResources);
+            // load generator
+            final ResourceGenerator gen = group.getKey().getResourceGenerator().value();
+            final LivingEntity entity = group.getValue().get(0).getEntity();
+            // generate resources, sampling several cycles at once
+            Collection<ItemStack> generatedResources = (cycles > 1)
+                    ? gen.sampleEntries((int) Math.min(Integer.MAX_VALUE, (long) affordable * cycles), entity, entity.getRandom())
+                    : gen.getRandomEntries(affordable, entity, entity.getRandom());
+            // add generated resources to list and plan the energy cost
+            if(!generatedResources.isEmpty()) {
+                available -= cost * affordable;
+                planned += cost * affordable;
+                resources.addAll(generatedResources);
+            }
+            // stop when the energy runs out
+            if(affordable < count) {
+                break;
+            }
+        }
+        // remove energy only for the resources that were paid for
+        if(planned > 0) {
+            extractEnergy(sources, (int) Math.min(Integer.MAX_VALUE, planned));
         }
         // remove invalid variants
-        invalid.forEach(uuid -> trackedAxolootls.remove(uuid));
+        invalid.forEach(this::untrackAxolootl);
         // update ticker
         if(resources.isEmpty()) {
             resourceGenerationTime = 100L * BASE_SPEED_DECREMENT;
         } else {
             resourceGenerationTime = Axolootl.CONFIG.BASE_GENERATION_PERIOD.get() * BASE_SPEED_DECREMENT;
         }
-        // insert all generated resources (remainder is ignored)
+        // insert all generated resources and hold the remainder, if any
         final Collection<ItemStack> remainder = insertItems(resources, false);
-        return !invalid.isEmpty();
+        addOverflow(remainder);
+        return !invalid.isEmpty() || !remainder.isEmpty();
+    }
+
+    /**
+     * Attempts to insert the held resources into any known output
+     * @return true if all held resources were inserted
+     */
+    private boolean flushOverflow() {
+        if(overflow.isEmpty()) {
+            return true;
+        }
+        final int count = overflow.size();
+        final Collection<ItemStack> remainder = insertItems(ImmutableList.copyOf(overflow), false);
+        overflow.clear();
+        overflow.addAll(remainder);
+        if(overflow.size() != count) {
+            this.setChanged();
+        }
+        return overflow.isEmpty();
+    }
+
+    /**
+     * Holds the given items until they can be inserted, up to the configured capacity. Any items that do not fit are discarded.
+     * @param itemStacks the item stacks that could not be inserted
+     */
+    private void addOverflow(final Collection<ItemStack> itemStacks) {
+        if(itemStacks.isEmpty()) {
+            return;
+        }
+        final List<ItemStack> list = new ArrayList<>(overflow);
+        list.addAll(itemStacks);
+        final List<ItemStack> merged = ItemOutputIndex.split(ItemOutputIndex.merge(list));
+        final int capacity = Axolootl.CONFIG.RESOURCE_OVERFLOW_CAPACITY.get();
+        overflow.clear();
+        overflow.addAll(merged.subList(0, Math.min(capacity, merged.size())));
+    }
+
+    /**
+     * @return the generated resources that did not fit in any output
+     */
+    public List<ItemStack> getOverflow() {
+        return Collections.unmodifiableList(overflow);
     }
 
     /**
@@ -483,8 +735,11 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @return the remainder item stacks after attempting to insert into all known outputs
      */
     private Collection<ItemStack> insertResources(final Collection<ItemStack> itemStacks, final boolean simulate) {
-        // create modifiable list of item stacks
-        final List<ItemStack> itemStackList = new ArrayList<>(itemStacks);
+        // combine identical item stacks
+        final List<ItemStack> itemStackList = ItemOutputIndex.merge(itemStacks);
+        if(itemStackList.isEmpty()) {
+            return itemStackList;
+        }
         // prepare to load resource outputs
         BlockEntity blockEntity;
         Optional<IItemHandler> capability;
@@ -496,12 +751,12 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
                 capability = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER).resolve();
                 // insert items
                 capability.ifPresent(c -> {
-                    ItemStack itemStack;
+                    final ItemOutputIndex index = new ItemOutputIndex(c);
                     // iterate itemstacks and attempt to insert each non-empty item
                     for(int i = 0, n = itemStackList.size(); i < n; i++) {
-                        itemStack = itemStackList.get(i);
+                        final ItemStack itemStack = itemStackList.get(i);
                         if(itemStack.isEmpty()) continue;
-                        itemStackList.set(i, ItemHandlerHelper.insertItemStacked(c, itemStack, simulate));
+                        itemStackList.set(i, index.insert(itemStack, simulate));
                     }
                 });
                 // check for successful insertion
@@ -512,7 +767,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             }
         }
         // return remaining items
-        return itemStackList;
+        return ItemOutputIndex.split(itemStackList);
     }
 
 
@@ -550,23 +805,25 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             this.setFeedInputEmpty(true);
             return true;
         }
+        // index the contents of each known item handler
+        final ItemHandlerSnapshot snapshot = ItemHandlerSnapshot.create(itemHandlers.values());
+        final boolean nonEmpty = !snapshot.isEmpty(); // true when at least one handler has items
+        // cache which variants can eat any of the indexed items
+        final Map<AxolootlVariant, Boolean> canEat = new HashMap<>();
         // iterate each axolootl
         boolean hasFed = false; // true when at least one axolootl was fed
-        boolean nonEmpty = false; // true when at least one handler has items
         int feedCandidates = 0; // the number of axolootls that need to be fed
         for(IAxolootl axolootl : axolootls) {
             // validate axolootl can accept food
             if(!axolootl.isFeedCandidate(level)) continue;
-            // attempt to feed from each known item handler
-            for(IItemHandler handler : itemHandlers.values()) {
-                InteractionResultHolder<Boolean> result = feed(level, handler, axolootl);
-                nonEmpty |= result.getObject().booleanValue();
-                if(result.getResult().consumesAction()) {
-                    hasFed = true;
-                    break;
-                }
-            }
             feedCandidates++;
+            // validate axolootl can eat at least one of the indexed items
+            final AxolootlVariant variant = axolootl.getAxolootlVariant(level.registryAccess()).orElse(AxolootlVariant.EMPTY);
+            if(!nonEmpty || !canEat.computeIfAbsent(variant, v -> v.canEatAny(snapshot.getItems()))) continue;
+            // attempt to feed from the indexed items
+            if(feed(level, snapshot, axolootl).consumesAction()) {
+                hasFed = true;
+            }
         }
         // update empty flag
         this.setFeedInputEmpty(feedCandidates > 0 && !nonEmpty);
@@ -580,33 +837,29 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     }
 
     /**
-     * Iterates the item handler inventory and attempts to feed each item to the given axolootl
+     * Iterates the indexed items and attempts to feed each item to the given axolootl
      * @param level the server level
-     * @param handler the item handler
+     * @param snapshot the indexed contents of the item handlers
      * @param axolootl the axolootl
-     * @return the result of the operation and a flag that is true when there are at least some items in the handler
+     * @return the result of the operation
      */
-    private InteractionResultHolder<Boolean> feed(ServerLevel level, IItemHandler handler, IAxolootl axolootl) {
+    private InteractionResult feed(ServerLevel level, ItemHandlerSnapshot snapshot, IAxolootl axolootl) {
         // iterate items in inventory
-        int emptySlots = 0;
-        for(int i = 0, n = handler.getSlots(); i < n; i++) {
+        for(Item item : snapshot.getItems()) {
             // validate item can be extracted
-            if(handler.extractItem(i, 1, true).isEmpty()) {
-                emptySlots++;
-                continue;
-            }
+            final ItemHandlerSnapshot.Slot slot = snapshot.find(item);
+            if(null == slot) continue;
             // attempt to feed this item
-            ItemStack food = handler.getStackInSlot(i).copy().split(1);
-            InteractionResult result = axolootl.feed(level, food);
+            InteractionResult result = axolootl.feed(level, slot.getSample());
             if(result.consumesAction()) {
                 // play sound
                 axolootl.getEntity().playSound(SoundEvents.GENERIC_EAT, 2.0F, axolootl.getEntity().getVoicePitch());
                 // remove from item handler
-                handler.extractItem(i, 1, false);
-                return new InteractionResultHolder<>(result, true);
+                snapshot.extract(slot);
+                return result;
             }
         }
-        return InteractionResultHolder.pass(emptySlots < handler.getSlots());
+        return InteractionResult.PASS;
     }
 
     // BREEDING //
@@ -646,30 +899,79 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             this.setBreedInputEmpty(true);
             return true;
         }
-        // iterate each axolootl
-        int breedCount = 0;
-        boolean nonEmpty = false; // true when at least one handler has items
+        // group breed candidates by variant, keeping the shuffled order
+        final RegistryAccess access = level.registryAccess();
+        final AxolootlBreedingIndex breedingIndex = AxRegistry.AxolootlBreedingReg.getIndex(access);
+        final Map<AxolootlVariant, List<IAxolootl>> candidates = new LinkedHashMap<>();
         int breedCandidates = 0; // the number of axolootls that can breed
-        for(int i = 0, n = axolootls.size(); i < n && breedCount + n < capacity; i++) {
-            IAxolootl axolootl = axolootls.get(i);
-            Optional<IAxolootl> oAxolootl = Optional.of(axolootl);
+        for(IAxolootl axolootl : axolootls) {
+            final AxolootlVariant variant = axolootl.getAxolootlVariant(access).orElse(AxolootlVariant.EMPTY);
             // validate axolootl can breed
-            if (!axolootl.isBreedCandidate(level, Optional.empty())) continue;
-            // iterate each other axolootl
-            for(int j = i + 1; j < n; j++) {
-                IAxolootl other = axolootls.get(j);
-                // validate other can breed
-                if (axolootl == other || !other.isBreedCandidate(level, oAxolootl)) continue;
-                // attempt to breed from each known item handler
-                InteractionResultHolder<Boolean> result = breed(level, itemHandlers, axolootl, other);
-                nonEmpty |= result.getObject().booleanValue();
+            if(AxolootlVariant.EMPTY.equals(variant) || !breedingIndex.hasAnyPartner(access, variant) || !axolootl.isBreedCandidate(level, Optional.empty())) continue;
+            candidates.computeIfAbsent(variant, v -> new ArrayList<>()).add(axolootl);
+            breedCandidates++;
+        }
+        // index the contents of each known item handler
+        final ItemHandlerSnapshot snapshot = ItemHandlerSnapshot.create(itemHandlers.values());
+        // determine which variants have breed food in stock
+        final Set<Item> stock = snapshot.getItems();
+        final List<AxolootlVariant> variants = new ArrayList<>(candidates.size());
+        for(AxolootlVariant variant : candidates.keySet()) {
+            final HolderSet<Item> breedFood = variant.getBreedFood().get(Registry.ITEM);
+            for(Item item : stock) {
+                if(breedFood.contains(item.builtInRegistryHolder())) {
+                    variants.add(variant);
+                    break;
+                }
+            }
+        }
+        // build the compatibility graph between variants with breed food in stock
+        final Map<AxolootlVariant, List<AxolootlVariant>> partners = new HashMap<>();
+        for(int i = 0, n = variants.size(); i < n; i++) {
+            final AxolootlVariant variant = variants.get(i);
+            for(int j = i; j < n; j++) {
+                final AxolootlVariant partner = variants.get(j);
+                // validate two axolootls are present when breeding with the same variant
+                if(i == j && candidates.get(variant).size() < 2) continue;
+                if(AxolootlBreedingWrapper.getBreedingRecipe(level, variant, partner).isEmpty()) continue;
+                partners.computeIfAbsent(variant, v -> new ArrayList<>()).add(partner);
+                if(i != j) {
+                    partners.computeIfAbsent(partner, v -> new ArrayList<>()).add(variant);
+                }
+            }
+        }
+        // true when at least one compatible pair has breed food in stock
+        final boolean nonEmpty = !partners.isEmpty();
+        // pick matches from the compatibility graph
+        int breedCount = 0;
+        final int n = axolootls.size();
+        final RandomSource random = level.getRandom();
+        for(AxolootlVariant variant : variants) {
+            final List<IAxolootl> list = candidates.get(variant);
+            final List<AxolootlVariant> compatible = partners.get(variant);
+            while(null != compatible && !list.isEmpty() && breedCount + n < capacity) {
+                final IAxolootl axolootl = list.remove(list.size() - 1);
+                // choose a partner variant weighted by the number of remaining axolootls
+                final AxolootlVariant partner = samplePartner(candidates, compatible, random);
+                if(null == partner) {
+                    break;
+                }
+                final List<IAxolootl> others = candidates.get(partner);
+                final IAxolootl other = others.remove(others.size() - 1);
+                // attempt to breed from the indexed items
+                InteractionResultHolder<Boolean> result = breed(level, snapshot, axolootl, other);
                 if(result.getResult().consumesAction()) {
                     breedCount++;
-                    break;
+                    continue;
+                }
+                // breed food for this pair is no longer available, so restore the axolootls and remove the edge
+                others.add(other);
+                list.add(axolootl);
+                compatible.remove(partner);
+                if(partner != variant) {
+                    partners.get(partner).remove(variant);
                 }
             }
-            // track breed candidates to use later
-            breedCandidates++;
         }
         // update empty flag
         this.setBreedInputEmpty(breedCandidates > 0 && !nonEmpty);
@@ -683,48 +985,31 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     }
 
     /**
-     * Iterates the item handler inventory and attempts to feed each item to the given axolootls
+     * Searches the indexed items and attempts to breed the given axolootls
      * @param level the server level
-     * @param handlers the item handlers
+     * @param snapshot the indexed contents of the item handlers
      * @param axolootl the axolootl
+     * @param other the other axolootl
      * @return the result of the operation and a flag that is true when there are at least some items in the handler
      */
-    private InteractionResultHolder<Boolean> breed(ServerLevel level, Map<BlockPos, IItemHandler> handlers, IAxolootl axolootl, IAxolootl other) {
+    private InteractionResultHolder<Boolean> breed(ServerLevel level, ItemHandlerSnapshot snapshot, IAxolootl axolootl, IAxolootl other) {
 
         final AxolootlVariant variant1 = axolootl.getAxolootlVariant(level.registryAccess()).orElse(AxolootlVariant.EMPTY);
         final AxolootlVariant variant2 = other.getAxolootlVariant(level.registryAccess()).orElse(AxolootlVariant.EMPTY);
         final HolderSet<Item> breedFood1 = variant1.getBreedFood().get(Registry.ITEM);
         final HolderSet<Item> breedFood2 = variant2.getBreedFood().get(Registry.ITEM);
 
-        // iterate inventories
-        IItemHandler handler1 = null;
-        IItemHandler handler2 = null;
-        int slot1 = -1;
-        int slot2 = -1;
-        for(IItemHandler handler : handlers.values()) {
-            // find items matching holder sets
-            Tuple<Integer, Integer> result = findItems(level, handler, breedFood1, breedFood2);
-            // check first item found
-            if(slot1 < 0 && result.getA() >= 0) {
-                handler1 = handler;
-                slot1 = result.getA();
-            }
-            // check second item found
-            if(slot2 < 0 && result.getB() >= 0) {
-                handler2 = handler;
-                slot2 = result.getB();
-            }
-            // check both items found early
-            if(slot1 >= 0 && slot2 >= 0) break;
-        }
+        // find items matching holder sets, without using the same item twice
+        final ItemHandlerSnapshot.Slot slot1 = snapshot.find(breedFood1, null);
+        final ItemHandlerSnapshot.Slot slot2 = (null == slot1) ? null : snapshot.find(breedFood2, slot1);
         // validate both items found
-        if(null == handler1 || null == handler2) {
+        if(null == slot1 || null == slot2) {
             return InteractionResultHolder.pass(true);
         }
         // validate both items extracted
         ItemStack food1;
         ItemStack food2;
-        if((food1 = handler1.extractItem(slot1, 1, false)).isEmpty() || (food2 = handler2.extractItem(slot2, 1, false)).isEmpty()) {
+        if((food1 = snapshot.extract(slot1)).isEmpty() || (food2 = snapshot.extract(slot2)).isEmpty()) {
             return InteractionResultHolder.fail(false);
         }
         // insert crafting remainders
@@ -739,43 +1024,39 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         // try to breed
         Optional<IAxolootl> oChild = axolootl.breed(level, other, enableMobBreeding);
         if(oChild.isEmpty() || oChild.get().getAxolootlVariantId().isEmpty()) {
-            return InteractionResultHolder.pass(slot1 < 0 && slot2 < 0);
+            return InteractionResultHolder.pass(false);
         }
         // add child to tracked axolootls
         this.trackedAxolootls.put(oChild.get().getEntity().getUUID(), oChild.get().getAxolootlVariantId().get());
+        this.axolootlsVersion++;
+        this.bonusTotals.putAxolootl(oChild.get());
         this.forceCalculateBonuses();
         return InteractionResultHolder.success(true);
     }
 
     /**
-     * Finds the given item in the given inventory
-     * @param level the server level
-     * @param handler the item handler
-     * @param left the first item to search for
-     * @param right the second item to search for
-     * @return the slots of the items that were found, where -1 means the item was not found
+     * @param candidates the remaining breed candidates for each variant
+     * @param compatible the variants to choose from
+     * @param random the random source
+     * @return a random variant from the compatible list, weighted by the number of remaining candidates, or null if there are none
      */
-    private Tuple<Integer, Integer> findItems(ServerLevel level, final IItemHandler handler, final HolderSet<Item> left, final HolderSet<Item> right) {
-        // iterate items in inventory
-        int slotLeft = -1;
-        int slotRight = -1;
-        for(int i = 0, n = handler.getSlots(); i < n; i++) {
-            // validate item can be extracted
-            if(handler.extractItem(i, 1, true).isEmpty()) continue;
-            // validate item is food
-            ItemStack food = handler.getStackInSlot(i).copy().split(1);
-            if(slotLeft < 0 && left.contains(food.getItemHolder())) {
-                slotLeft = i;
-            }
-            if(slotRight < 0 && right.contains(food.getItemHolder())) {
-                slotRight = i;
-            }
-            // both items were found
-            if(slotLeft >= 0 && slotRight >= 0) {
-                break;
+    @Nullable
+    private static AxolootlVariant samplePartner(final Map<AxolootlVariant, List<IAxolootl>> candidates, final List<AxolootlVariant> compatible, final RandomSource random) {
+        int total = 0;
+        for(AxolootlVariant variant : compatible) {
+            total += candidates.get(variant).size();
+        }
+        if(total <= 0) {
+            return null;
+        }
+        int index = random.nextInt(total);
+        for(AxolootlVariant variant : compatible) {
+            index -= candidates.get(variant).size();
+            if(index < 0) {
+                return variant;
             }
         }
-        return new Tuple<>(slotLeft, slotRight);
+        return null;
     }
 
     // ITERATORS //
@@ -795,33 +1076,46 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         int blocksChecked = 0;
         boolean isDirty = false;
         while(outsideIterator.hasNext() && blocksChecked++ < blocksToCheck) {
-            BlockPos pos = outsideIterator.next();
-            // validate no duplicate controllers
-            if(!getBlockPos().equals(pos) && level.getBlockEntity(pos) instanceof ControllerBlockEntity) {
-                this.isDuplicateFound = true;
-                this.setSize(null);
+            isDirty |= scanOutside(level, outsideIterator.next());
+            // validate tank still exists
+            if(null == size) {
                 return true;
             }
-            // validate tank block
-            if(!TankMultiblock.AQUARIUM.isTankBlock(level, pos)) {
-                this.setSize(null);
-                return true;
-            }
-            // determine applicable tab
-            BlockState blockState = level.getBlockState(pos);
-            Optional<IAquariumTab> oTab = IAquariumTab.forBlock(level, pos, blockState);
-            if(oTab.isPresent()) {
-                // start tracking the block at this position
-                isDirty |= startTrackingBlock(level, AxRegistry.AQUARIUM_TABS_SUPPLIER.get().getKey(oTab.get()), pos);
-            }
         }
-        // restart iterator after it is finished
-        if(!outsideIterator.hasNext() && size != null) {
-            outsideIterator = size.outerPositions().iterator();
+        // full scan of the outside is complete
+        if(!outsideIterator.hasNext()) {
+            outsideIterator = null;
         }
         return isDirty;
     }
 
+    /**
+     * @param level the server level
+     * @param pos a block position on the outside of the tank
+     * @return true if the tank size changed or new inputs/outputs were found
+     */
+    private boolean scanOutside(ServerLevel level, final BlockPos pos) {
+        // validate no duplicate controllers
+        if(!getBlockPos().equals(pos) && level.getBlockEntity(pos) instanceof ControllerBlockEntity) {
+            this.isDuplicateFound = true;
+            this.setSize(null);
+            return true;
+        }
+        // validate tank block
+        if(!TankMultiblock.AQUARIUM.isTankBlock(level, pos)) {
+            this.setSize(null);
+            return true;
+        }
+        // determine applicable tab
+        BlockState blockState = level.getBlockState(pos);
+        Optional<IAquariumTab> oTab = IAquariumTab.forBlock(level, pos, blockState);
+        if(oTab.isPresent()) {
+            // start tracking the block at this position
+            return startTrackingBlock(level, AxRegistry.AQUARIUM_TABS_SUPPLIER.get().getKey(oTab.get()), pos);
+        }
+        return false;
+    }
+
     /**
      * @param level the server level
      * @param blocksToCheck the maximum number of blocks to iterate
@@ -836,29 +1130,11 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         int blocksChecked = 0;
         boolean isDirty = false;
         while(insideIterator.hasNext() && blocksChecked++ < blocksToCheck) {
-            BlockPos pos = insideIterator.next();
-            // determine applicable modifier
-            Optional<AquariumModifier> oModifier = AquariumModifier.forBlock(level, pos);
-            if(oModifier.isPresent()) {
-                ResourceLocation name = oModifier.get().getRegistryName(level.registryAccess());
-                // determine if modifier was not previously known
-                isDirty |= !this.aquariumModifiers.containsKey(pos) || !this.aquariumModifiers.get(pos).equals(name);
-                // add modifier to map
-                this.aquariumModifiers.put(pos.immutable(), name);
-                // notify modifier
-                IAquariumControllerProvider.trySetController(level, pos, this);
-            }
-            // determine applicable tab
-            BlockState blockState = level.getBlockState(pos);
-            Optional<IAquariumTab> oTab = IAquariumTab.forBlock(level, pos, blockState);
-            if(oTab.isPresent()) {
-                // start tracking the block at this position
-                isDirty |= startTrackingBlock(level, AxRegistry.AQUARIUM_TABS_SUPPLIER.get().getKey(oTab.get()), pos);
-            }
+            isDirty |= scanInside(level, insideIterator.next());
         }
-        // restart iterator after it is finished
-        if(!insideIterator.hasNext() && size != null) {
-            insideIterator = size.innerPositions().iterator();
+        // full scan of the inside is complete
+        if(!insideIterator.hasNext()) {
+            insideIterator = null;
         }
         // report changes
         if(isDirty) {
@@ -867,6 +1143,142 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         return false;
     }
 
+    /**
+     * @param level the server level
+     * @param pos a block position on the inside of the tank
+     * @return true if the modifier map was changed or new inputs/outputs were found
+     */
+    private boolean scanInside(ServerLevel level, final BlockPos pos) {
+        boolean isDirty = false;
+        // determine applicable modifier
+        Optional<AquariumModifier> oModifier = AquariumModifier.forBlock(level, pos);
+        if(oModifier.isPresent()) {
+            ResourceLocation name = oModifier.get().getRegistryName(level.registryAccess());
+            // determine if modifier was not previously known
+            final ResourceLocation previous = this.aquariumModifiers.get(pos);
+            isDirty |= !name.equals(previous);
+            // add modifier to map
+            this.aquariumModifiers.put(pos.immutable(), name);
+            if(!name.equals(previous)) {
+                this.modifiersVersion++;
+            }
+            // update bonus totals when a known modifier was replaced by a different one
+            if(previous != null && !name.equals(previous)) {
+                if(this.activeAquariumModifiers.contains(pos)) {
+                    this.bonusTotals.putModifier(pos, oModifier.get());
+                } else {
+                    this.bonusTotals.removeModifier(pos);
+                }
+            }
+            // notify modifier
+            IAquariumControllerProvider.trySetController(level, pos, this);
+        }
+        // determine applicable tab
+        BlockState blockState = level.getBlockState(pos);
+        Optional<IAquariumTab> oTab = IAquariumTab.forBlock(level, pos, blockState);
+        if(oTab.isPresent()) {
+            // start tracking the block at this position
+            isDirty |= startTrackingBlock(level, AxRegistry.AQUARIUM_TABS_SUPPLIER.get().getKey(oTab.get()), pos);
+        }
+        return isDirty;
+    }
+
+    /**
+     * Scans block positions that were reported as changed since the last tick
+     * @param level the server level
+     * @param blocksToCheck the maximum number of blocks to scan
+     * @return true if the tank size, modifier map, or tracked blocks changed
+     */
+    private boolean iterateChanged(ServerLevel level, final int blocksToCheck) {
+        // verify changes exist
+        if(changedPositions.isEmpty() || null == size) {
+            return false;
+        }
+        final BoundingBox bounds = size.boundingBox();
+        final Iterator<BlockPos> iterator = changedPositions.iterator();
+        int blocksChecked = 0;
+        boolean isDirty = false;
+        boolean isModifierDirty = false;
+        while(iterator.hasNext() && blocksChecked++ < blocksToCheck) {
+            final BlockPos pos = iterator.next();
+            iterator.remove();
+            // stop tracking blocks that are no longer valid
+            for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : trackedBlocks.entrySet()) {
+                IAquariumTab tab = AxRegistry.AQUARIUM_TABS_SUPPLIER.get().getValue(entry.getKey());
+                if(entry.getValue().contains(pos) && (null == tab || !tab.isFor(level, pos, level.getBlockState(pos)))) {
+                    entry.getValue().remove(pos);
+                    IAquariumControllerProvider.tryClearController(level, pos);
+                    this.trackedBlocksVersion++;
+                    isDirty = true;
+                }
+            }
+            // scan the outside or inside of the tank
+            if(pos.getX() == bounds.minX() || pos.getX() == bounds.maxX() || pos.getY() == bounds.minY()
+                    || pos.getY() == bounds.maxY() || pos.getZ() == bounds.minZ() || pos.getZ() == bounds.maxZ()) {
+                isDirty |= scanOutside(level, pos);
+                // validate tank still exists
+                if(null == size) {
+                    return true;
+                }
+            } else {
+                // stop tracking modifiers that are no longer valid
+                if(aquariumModifiers.containsKey(pos) && AquariumModifier.forBlock(level, pos).isEmpty()) {
+                    aquariumModifiers.remove(pos);
+                    activeAquariumModifiers.remove(pos);
+                    modifiersVersion++;
+                    bonusTotals.removeModifier(pos);
+                    IAquariumControllerProvider.tryClearController(level, pos);
+                    isModifierDirty = true;
+                }
+                isModifierDirty |= scanInside(level, pos);
+            }
+        }
+        // report changes
+        if(isModifierDirty) {
+            this.forceCalculateBonuses = true;
+        }
+        return isDirty || isModifierDirty;
+    }
+
+    /**
+     * Called when a block changes inside the chunks that overlap the tank bounds
+     * @param pos the block position that changed
+     * @see AquariumChangeTracker
+     */
+    public void onBlockChanged(final BlockPos pos) {
+        // validate position is within the tank bounds
+        if(null == size || !size.boundingBox().isInside(pos)) {
+            return;
+        }
+        // fall back to a full scan when too many changes are queued
+        if(changedPositions.size() >= MAX_CHANGED_POSITIONS) {
+            changedPositions.clear();
+            requestFullScan();
+            return;
+        }
+        changedPositions.add(pos.immutable());
+    }
+
+    /**
+     * @return true if either iterator has block positions remaining to scan
+     */
+    private boolean isFullScanInProgress() {
+        return (outsideIterator != null && outsideIterator.hasNext()) || (insideIterator != null && insideIterator.hasNext());
+    }
+
+    /**
+     * Restarts the iterators to scan every block of the tank.
+     * This is also requested periodically, since blocks can be changed without notifying neighbors,
+     * such as by other mods or by placing blocks without block updates.
+     */
+    public void requestFullScan() {
+        if(null == size) {
+            return;
+        }
+        this.outsideIterator = size.outerPositions().iterator();
+        this.insideIterator = size.innerPositions().iterator();
+    }
+
     /**
      * @param level the server level
      * @return true if the entity list changed
@@ -877,20 +1289,23 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             return false;
         }
         // validate needs to update this tick
-        if(!forceCalculateAxolootls && level.getGameTime() % AXOLOOTL_SEARCH_INTERVAL != 0) {
+        if(!forceCalculateAxolootls && !isPhaseDue(level, AXOLOOTL_SEARCH_INTERVAL)) {
             return false;
         }
         this.forceCalculateAxolootls = false;
         // query entities that are not already tracked
         final AABB aabb = this.size.aabb();
+        final AxolootlVariantSnapshot variants = AxRegistry.AxolootlVariantsReg.getSnapshot(level.registryAccess());
         final List<LivingEntity> list = level.getEntitiesOfClass(LivingEntity.class, aabb,
                 entity -> entity instanceof IAxolootl iAxolootl
                         && !trackedAxolootls.containsKey(entity.getUUID())
                         && iAxolootl.getAxolootlVariantId().isPresent()
-                        && AxRegistry.AxolootlVariantsReg.isValid(iAxolootl.getAxolootlVariantId().get()));
+                        && variants.isValid(iAxolootl.getAxolootlVariantId().get()));
         // add new entities
         list.forEach(e -> {
             this.trackedAxolootls.put(e.getUUID(), ((IAxolootl)e).getAxolootlVariantId().get());
+            this.axolootlsVersion++;
+            this.bonusTotals.putAxolootl((IAxolootl)e);
             IAquariumControllerProvider.trySetController(e, level, this);
         });
         // report changes
@@ -910,21 +1325,21 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             return false;
         }
         // validate needs to update this tick
-        if(level.getGameTime() % AXOLOOTL_VALIDATE_INTERVAL != 0) {
+        if(!isPhaseDue(level, AXOLOOTL_VALIDATE_INTERVAL)) {
             return false;
         }
         final Set<UUID> invalid = new HashSet<>();
         final AABB bounds = this.size.aabb();
-        // validate each tracked entity
-        for(UUID uuid : trackedAxolootls.keySet()) {
-            Entity entity = level.getEntity(uuid);
-            if(null == entity || !bounds.intersects(entity.getBoundingBox())) {
-                invalid.add(uuid);
+        // resolve each tracked entity from its handle, where only unresolved handles are queried by UUID
+        for(IAxolootl axolootl : axolootlHandles.resolve(level, trackedAxolootls.keySet(), invalid)) {
+            final LivingEntity entity = axolootl.getEntity();
+            if(!bounds.intersects(entity.getBoundingBox())) {
+                invalid.add(entity.getUUID());
                 IAquariumControllerProvider.tryClearController(entity);
             }
         }
         // remove invalid entities
-        invalid.forEach(uuid -> trackedAxolootls.remove(uuid));
+        invalid.forEach(this::untrackAxolootl);
         // report changes
         if(!invalid.isEmpty()) {
             return this.forceCalculateBonuses = true;
@@ -942,7 +1357,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         List<ResourceLocation> keySet = new ArrayList<>(this.trackedBlocks.keySet());
         keySet.sort(ResourceLocation::compareNamespaced);
         // validate index (this ensures we validate AT MOST one set per tick)
-        int index = (int) (level.getGameTime() % Math.max(this.trackedBlocks.size() + 1, 40));
+        int index = (int) Math.floorMod(level.getGameTime() + phaseOffset, Math.max(this.trackedBlocks.size() + 1, 40));
         if(index < 0 || index >= keySet.size()) {
             return false;
         }
@@ -981,7 +1396,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      */
     private boolean validateUpdateModifiers(ServerLevel level) {
         // validate modifiers can be checked this tick
-        if(level.getGameTime() % MODIFIER_VALIDATE_INTERVAL != 0) {
+        if(!isPhaseDue(level, MODIFIER_VALIDATE_INTERVAL)) {
             return false;
         }
         // iterate modifiers and check if they still exist and whether they are active
@@ -990,11 +1405,12 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         final Set<BlockPos> wasActive = getActiveAquariumModifiers();
         final Collection<IAxolootl> axolootls = resolveAxolootls(level);
         final Map<BlockPos, AquariumModifier> modifierMap = ImmutableMap.copyOf(resolveModifiers(level.registryAccess()));
+        final ModifierPositionIndex index = new ModifierPositionIndex(level.registryAccess(), modifierMap, wasActive);
         for(Map.Entry<BlockPos, AquariumModifier> entry : modifierMap.entrySet()) {
             // validate modifier
             if(entry.getValue().isApplicable(level, entry.getKey())) {
                 // create context
-                AquariumModifierContext context = new AquariumModifierContext(level, entry.getKey(), size, axolootls, modifierMap, wasActive);
+                AquariumModifierContext context = new AquariumModifierContext(level, entry.getKey(), size, axolootls, modifierMap, wasActive, index);
                 // check if modifier is active
                 if(entry.getValue().isActive(context)) {
                     active.add(entry.getKey());
@@ -1009,10 +1425,25 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         // remove invalid modifiers
         invalid.forEach(p -> aquariumModifiers.remove(p));
         boolean isDirty = !invalid.isEmpty();
+        if(isDirty) {
+            modifiersVersion++;
+        }
         // update active modifier set
         if(!this.activeAquariumModifiers.equals(active)) {
+            // update bonus totals for modifiers that were activated or deactivated
+            for(BlockPos pos : this.activeAquariumModifiers) {
+                if(!active.contains(pos)) {
+                    bonusTotals.removeModifier(pos);
+                }
+            }
+            for(BlockPos pos : active) {
+                if(!this.activeAquariumModifiers.contains(pos)) {
+                    bonusTotals.putModifier(pos, modifierMap.get(pos));
+                }
+            }
             this.activeAquariumModifiers.clear();
             this.activeAquariumModifiers.addAll(active);
+            this.modifiersVersion++;
             this.forceCalculateBonuses();
             isDirty = true;
         }
@@ -1020,6 +1451,8 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     }
 
     /**
+     * Distributes energy to the active modifiers that require it. The total demand is extracted from the
+     * energy sources in a single pass and then delivered to each modifier, from highest cost to lowest.
      * @param level the server level
      * @return true if there are any changes
      **/
@@ -1027,42 +1460,59 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         // collect aquarium modifiers
         final List<Map.Entry<BlockPos, AquariumModifier>> modifiers = new ArrayList<>(resolveModifiers(level.registryAccess(),
                 activePredicate.and((b, a) -> a.getSettings().getEnergyCost() > 0)).entrySet());
-        // sort from highest energy cost to lowest
-        final Comparator<Map.Entry<BlockPos, AquariumModifier>> comparator = Comparator.comparingInt(e -> e.getValue().getSettings().getEnergyCost());
-        modifiers.sort(comparator.reversed());
         // verify energy is required
         if(modifiers.isEmpty()) {
             return false;
         }
-        // collect energy handlers
-        final Map<BlockPos, IEnergyStorage> energyHandlers = resolveEnergyStorage(IEnergyStorage::canExtract);
-        // attempt to distribute energy
-        boolean hasPowered = false;
+        // sort from highest energy cost to lowest
+        final Comparator<Map.Entry<BlockPos, AquariumModifier>> comparator = Comparator.comparingInt(e -> e.getValue().getSettings().getEnergyCost());
+        modifiers.sort(comparator.reversed());
+        // collect energy handlers and determine the available energy, up to the total demand
+        long demand = 0;
         for(Map.Entry<BlockPos, AquariumModifier> entry : modifiers) {
-            // determine cost for this modifier
-            int cost = entry.getValue().getSettings().getEnergyCost();
-            int depleted = 0;
+            demand += entry.getValue().getSettings().getEnergyCost();
+        }
+        final List<IEnergyStorage> sources = collectEnergySources(level);
+        int available = simulateExtractEnergy(sources, (int) Math.min(Integer.MAX_VALUE, demand));
+        // plan the amount of energy for each modifier until one of them cannot be powered
+        final IEnergyStorage[] receivers = new IEnergyStorage[modifiers.size()];
+        final int[] planned = new int[modifiers.size()];
+        int total = 0;
+        int failed = -1;
+        for(int i = 0, n = modifiers.size(); i < n; i++) {
+            final Map.Entry<BlockPos, AquariumModifier> entry = modifiers.get(i);
+            final int cost = entry.getValue().getSettings().getEnergyCost();
             // whether the destination block is responsible to use up the energy
-            boolean isVoid = entry.getValue().getSettings().isGreedyEnergy();
-            // iterate each energy storage and attempt to transfer energy
-            for(IEnergyStorage energyStorage : energyHandlers.values()) {
-                // transfer the amount of energy required for the modifier
-                depleted += transferEnergy(level, energyStorage, entry.getKey(), cost, isVoid);
-                if(depleted >= cost) {
-                    hasPowered = true;
-                    break;
-                }
-            }
-            // detect when the energy storage is depleted and notify the controller
-            if (depleted < cost) {
-                setInsufficientPower(true);
-                this.aquariumModifiers.remove(entry.getKey());
-                this.activeAquariumModifiers.remove(entry.getKey());
-                IAquariumControllerProvider.tryClearController(level, entry.getKey());
-                this.forceCalculateBonuses();
-                return true;
+            final boolean isVoid = entry.getValue().getSettings().isGreedyEnergy();
+            receivers[i] = resolveEnergyStorageOrVoid(level, entry.getKey(), isVoid);
+            final int amount = Math.min(cost, available);
+            planned[i] = amount > 0 ? receivers[i].receiveEnergy(amount, true) : 0;
+            available -= planned[i];
+            total += planned[i];
+            if(planned[i] < cost) {
+                failed = i;
+                break;
             }
         }
+        // extract the planned energy in a single pass and deliver it
+        int extracted = total > 0 ? extractEnergy(sources, total) : 0;
+        for(int i = 0, n = (failed < 0 ? modifiers.size() : failed); i < n && extracted > 0; i++) {
+            final int amount = Math.min(planned[i], extracted);
+            receivers[i].receiveEnergy(amount, false);
+            extracted -= amount;
+        }
+        // detect when the energy storage is depleted and notify the controller
+        if (failed >= 0) {
+            final BlockPos pos = modifiers.get(failed).getKey();
+            setInsufficientPower(true);
+            this.aquariumModifiers.remove(pos);
+            this.activeAquariumModifiers.remove(pos);
+            this.modifiersVersion++;
+            this.bonusTotals.removeModifier(pos);
+            IAquariumControllerProvider.tryClearController(level, pos);
+            this.forceCalculateBonuses();
+            return true;
+        }
         // update controller tank state
         setInsufficientPower(false);
         // no internal changes to report here
@@ -1070,69 +1520,48 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     }
 
     /**
-     * General purpose method to transfer energy from all known energy sources until the given amount is transferred
-     * @param level the level
-     * @param targetPos the block position to receive the energy
-     * @param maxAmount the amount of energy to transfer
-     * @param useVoidStorage true to transfer energy into the void, never to be seen again
-     * @return the amount of energy that was transferred
-     */
-    private int transferEnergy(final Level level, final BlockPos targetPos, final int maxAmount, final boolean useVoidStorage) {
-        // collect energy handlers
-        final Map<BlockPos, IEnergyStorage> energyHandlers = new HashMap<>();
-        for(BlockPos entry : getEnergyInputs()) {
-            IEnergyStorage storage = resolveEnergyStorageOrVoid(level, entry, false);
-            if(storage.canExtract()) {
-                energyHandlers.put(entry, storage);
-            }
-        }
-        // attempt to transfer energy
+     * Removes energy from each energy source in order until the given amount is removed
+     * @param sources the energy sources
+     * @param maxAmount the amount of energy to remove
+     * @return the amount of energy that was removed
+     */
+    private static int extractEnergy(final List<IEnergyStorage> sources, final int maxAmount) {
         int depleted = 0;
-        // iterate each energy storage and attempt to transfer energy
-        for(IEnergyStorage energyStorage : energyHandlers.values()) {
-            // transfer the amount of energy required for the modifier
-            depleted += transferEnergy(level, energyStorage, targetPos, maxAmount - depleted, useVoidStorage);
-            if(depleted >= maxAmount) {
-                break;
-            }
-        }
-        // detect when the energy storage is depleted and notify the controller
-        if (depleted < maxAmount) {
-            setInsufficientPower(true);
-            this.forceCalculateBonuses();
+        for(int i = 0, n = sources.size(); i < n && depleted < maxAmount; i++) {
+            depleted += sources.get(i).extractEnergy(maxAmount - depleted, false);
         }
         return depleted;
     }
 
+    /**
+     * @param sources the energy sources
+     * @param maxAmount the maximum amount of energy
+     * @return the amount of energy that could be removed from the energy sources, up to the given amount
+     */
+    private static int simulateExtractEnergy(final List<IEnergyStorage> sources, final int maxAmount) {
+        int depleted = 0;
+        for(int i = 0, n = sources.size(); i < n && depleted < maxAmount; i++) {
+            depleted += sources.get(i).extractEnergy(maxAmount - depleted, true);
+        }
+        return depleted;
+    }
 
     /**
-     * Attempts to insert energy into the given position. If the given block entity
-     * does not exist or cannot accept energy, the energy is permanently removed into a void storage
      * @param level the level
-     * @param energyStorage the source energy storage
-     * @param receiverPos the destination position
-     * @param maxAmount the maximum amount of energy to transfer
-     * @param useVoidStorage true to transfer the energy into the void, never to be seen again
-     * @return the energy that was transferred
+     * @return the cached energy storage handlers of the energy inputs that can extract energy
      */
-    private int transferEnergy(final Level level, final IEnergyStorage energyStorage, final BlockPos receiverPos, final int maxAmount, final boolean useVoidStorage) {
-        // determine amount to extract
-        final int amount = Math.min(maxAmount, energyStorage.extractEnergy(maxAmount, true));
-        if(amount <= 0) {
-            return 0;
-        }
-        // load destination energy storage
-        final IEnergyStorage receiverStorage = resolveEnergyStorageOrVoid(level, receiverPos, useVoidStorage);
-        // attempt to insert energy
-        if(!receiverStorage.canReceive() || receiverStorage.receiveEnergy(amount, true) <= 0) {
-            return 0;
+    private List<IEnergyStorage> collectEnergySources(final Level level) {
+        // remove handles for positions that are no longer tracked
+        final Set<BlockPos> energyInputs = getEnergyInputs();
+        if(energyHandles.size() > energyInputs.size() + aquariumModifiers.size()) {
+            energyHandles.retain(p -> energyInputs.contains(p) || aquariumModifiers.containsKey(p));
         }
-        return energyStorage.extractEnergy(receiverStorage.receiveEnergy(amount, false), false);
+        return energyHandles.collect(level, energyInputs, IEnergyStorage::canExtract, new ArrayList<>(energyInputs.size()));
     }
 
     /**
-     * Attempts to resolve an energy storage for each side of the block entity until one is found that can receive energy.
-     * If the block entity does not exist or the directional search fails, a void storage is created.
+     * Attempts to resolve an energy storage capability that can receive energy.
+     * If the block entity does not exist or cannot receive energy, a void storage is used.
      * @param level the level
      * @param pos the block position
      * @param useVoidStorage true to transfer the energy into the void, never to be seen again
@@ -1140,18 +1569,12 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @see VoidEnergyStorage
      */
     private IEnergyStorage resolveEnergyStorageOrVoid(final Level level, final BlockPos pos, final boolean useVoidStorage) {
-        final BlockEntity blockEntity;
-        // verify smart storage and block entity exists
-        if(useVoidStorage || null == (blockEntity = level.getBlockEntity(pos))) {
+        // verify smart storage
+        if(useVoidStorage) {
             return VoidEnergyStorage.INSTANCE;
         }
-        // iterate each direction until an energy storage capability is found that can receive energy
-        Optional<IEnergyStorage> oStorage = blockEntity.getCapability(ForgeCapabilities.ENERGY).resolve();
-        if(oStorage.isPresent() && oStorage.get().canReceive()) {
-            return oStorage.get();
-        }
-        // all checks failed
-        return VoidEnergyStorage.INSTANCE;
+        // load cached energy storage capability that can receive energy
+        return energyHandles.get(level, pos).filter(IEnergyStorage::canReceive).orElse(VoidEnergyStorage.INSTANCE);
     }
 
     public void onRemoved() {
@@ -1160,6 +1583,24 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         }
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        // listen for block changes and scan the entire tank once
+        if(level instanceof ServerLevel level && this.size != null) {
+            AquariumChangeTracker.add(level, this, size);
+            requestFullScan();
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if(level instanceof ServerLevel level) {
+            AquariumChangeTracker.remove(level, this);
+        }
+    }
+
     private void clearAllData(final ServerLevel level) {
         // remove self from modifiers
         for(BlockPos p : aquariumModifiers.keySet()) {
@@ -1181,8 +1622,16 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         this.trackedAxolootls.clear();
         this.aquariumModifiers.clear();
         this.activeAquariumModifiers.clear();
+        this.trackedBlocksVersion++;
+        this.axolootlsVersion++;
+        this.modifiersVersion++;
+        this.changedPositions.clear();
+        this.energyHandles.clear();
+        this.axolootlHandles.clear();
+        this.bonusTotals.clear();
         this.insideIterator = null;
         this.outsideIterator = null;
+        AquariumChangeTracker.remove(level, this);
     }
 
     // STATUS //
@@ -1243,13 +1692,29 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             return TankStatus.OVERCROWDED;
         }
         // check storage is nonexistent or full
-        if(this.getResourceOutputs().isEmpty() || isOutputFull()) {
+        if(this.getResourceOutputs().isEmpty() || (isOutputFull() && !recheckOutputs(level))) {
             return TankStatus.STORAGE_FULL;
         }
         // all checks passed
         return TankStatus.ACTIVE;
     }
 
+    /**
+     * Periodically attempts to insert held resources while the outputs are full
+     * @param level the server level
+     * @return true if the outputs are no longer full
+     */
+    private boolean recheckOutputs(ServerLevel level) {
+        if(Math.floorMod(level.getGameTime() + phaseOffset, OUTPUT_RECHECK_PERIOD) != 0) {
+            return false;
+        }
+        if(overflow.isEmpty() || flushOverflow()) {
+            this.isOutputFull = false;
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Updates feed speed and calculates current feed status
      * @param level the server level
@@ -1337,12 +1802,17 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             return;
         }
         this.size = size;
+        this.changedPositions.clear();
         if(size != null) {
             this.isDuplicateFound = false;
-            this.insideIterator = size.innerPositions().iterator();
-            this.outsideIterator = size.outerPositions().iterator();
+            this.requestFullScan();
             this.forceCalculateBonuses = true;
             this.forceCalculateAxolootls = true;
+            // listen for block changes in the new tank bounds
+            if(level instanceof ServerLevel level) {
+                AquariumChangeTracker.remove(level, this);
+                AquariumChangeTracker.add(level, this, size);
+            }
         } else if(level instanceof ServerLevel level) {
             clearAllData(level);
         }
@@ -1516,6 +1986,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     private Set<BlockPos> getTrackedBlocksRaw(final ResourceLocation category) {
         if(!trackedBlocks.containsKey(category)) {
             trackedBlocks.put(category, new HashSet<>());
+            trackedBlocksVersion++;
         }
         return trackedBlocks.get(category);
     }
@@ -1539,6 +2010,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         }
         // add to set
         set.add(pos.immutable());
+        this.trackedBlocksVersion++;
         // notify block at this position
         IAquariumControllerProvider.trySetController(level, pos, this);
         return true;
@@ -1561,6 +2033,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         if(!set.remove(pos)) {
             return false;
         }
+        this.trackedBlocksVersion++;
         // notify block at this position
         IAquariumControllerProvider.tryClearController(level, pos);
         return true;
@@ -1613,7 +2086,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @return the itemstack representation of the axolootl if it was removed
      */
     public ItemStack removeAxolootl(final ServerLevel level, final UUID uuid) {
-        ResourceLocation id = trackedAxolootls.remove(uuid);
+        ResourceLocation id = untrackAxolootl(uuid);
         if(null == id) {
             return ItemStack.EMPTY;
         }
@@ -1643,10 +2116,12 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         final UUID uuid = iaxolootl.getEntity().getUUID();
         final Optional<ResourceLocation> oId = iaxolootl.getAxolootlVariantId();
         // validate variant ID
-        if(oId.isEmpty() || !AxRegistry.AxolootlVariantsReg.isValid(oId.get())) {
+        if(oId.isEmpty() || !AxRegistry.AxolootlVariantsReg.isValid(level.registryAccess(), oId.get())) {
             return false;
         }
         this.trackedAxolootls.put(uuid, oId.get());
+        this.axolootlsVersion++;
+        this.bonusTotals.putAxolootl(iaxolootl);
         // mark changed
         this.forceCalculateBonuses();
         setChanged();
@@ -1687,7 +2162,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @return a collection of axolootl entities
      */
     public Collection<IAxolootl> resolveAxolootls(ServerLevel level) {
-        return resolveAxolootls(level, o -> true);
+        return resolveAxolootlHandles(level);
     }
 
     /**
@@ -1698,27 +2173,74 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      * @return a collection of axolootl entities
      */
     public Collection<IAxolootl> resolveAxolootls(final ServerLevel level, final Predicate<IAxolootl> predicate) {
+        final List<IAxolootl> axolootls = resolveAxolootlHandles(level);
         // create list builder
         final ImmutableList.Builder<IAxolootl> builder = ImmutableList.builder();
-        // create set of modifiers that need to be removed
-        final Set<UUID> invalid = new HashSet<>();
-        // iterate each known axolootl and either add it to the list or mark it to be removed
-        for(UUID uuid : trackedAxolootls.keySet()) {
-            Entity entity = level.getEntity(uuid);
-            if(entity instanceof IAxolootl iprovider && !iprovider.getEntity().isDeadOrDying()) {
-                // test against predicate before adding
-                if(predicate.test(iprovider)) {
-                    builder.add(iprovider);
-                }
-            } else {
-                invalid.add(uuid);
+        for(int i = 0, n = axolootls.size(); i < n; i++) {
+            // test against predicate before adding
+            if(predicate.test(axolootls.get(i))) {
+                builder.add(axolootls.get(i));
             }
         }
-        // remove invalid axolootls
-        invalid.forEach(o -> this.trackedAxolootls.remove(o));
         return builder.build();
     }
 
+    /**
+     * Resolves the tracked axolootls using the cached references and only queries entities by UUID when needed.
+     * If the entity cannot be resolved, it is removed from the tracked axolootl list.
+     * @param level the server level
+     * @return an unmodifiable view of the axolootl entities, valid until the next time the axolootls are resolved
+     */
+    private List<IAxolootl> resolveAxolootlHandles(final ServerLevel level) {
+        // create set of axolootls that need to be removed
+        final List<UUID> invalid = new ArrayList<>(0);
+        final List<IAxolootl> axolootls = axolootlHandles.resolve(level, trackedAxolootls.keySet(), invalid);
+        // remove invalid axolootls
+        if(!invalid.isEmpty()) {
+            invalid.forEach(this::untrackAxolootl);
+            return axolootlHandles.resolve(level, trackedAxolootls.keySet(), invalid);
+        }
+        return axolootls;
+    }
+
+    /**
+     * Stops tracking the given axolootl and removes its bonuses
+     * @param uuid the entity ID
+     * @return the axolootl variant ID, or null if the axolootl was not tracked
+     */
+    @Nullable
+    private ResourceLocation untrackAxolootl(final UUID uuid) {
+        this.bonusTotals.removeAxolootl(uuid);
+        this.axolootlsVersion++;
+        return this.trackedAxolootls.remove(uuid);
+    }
+
+    /**
+     * Updates the bonus totals after the bonuses of the given axolootl changed
+     * @param axolootl the axolootl
+     */
+    public void onAxolootlBonusesChanged(final IAxolootl axolootl) {
+        if(this.trackedAxolootls.containsKey(axolootl.getEntity().getUUID())) {
+            this.bonusTotals.putAxolootl(axolootl);
+        }
+        this.forceCalculateBonuses();
+    }
+
+    /**
+     * Stores a direct reference to the axolootl so that it does not need to be queried by UUID
+     * @param axolootl the axolootl that is now linked to this controller
+     */
+    public void registerAxolootl(final IAxolootl axolootl) {
+        this.axolootlHandles.register(axolootl);
+    }
+
+    /**
+     * @param axolootl the axolootl that is no longer linked to this controller or left the level
+     */
+    public void unregisterAxolootl(final IAxolootl axolootl) {
+        this.axolootlHandles.unregister(axolootl);
+    }
+
     /**
      * Iterates the tracked axolootl variants and attempts to resolve each one.
      * If the variant cannot be resolved, it is removed from the tracked axolootl list.
@@ -1731,19 +2253,18 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         // create set of modifiers that need to be removed
         final Set<UUID> invalid = new HashSet<>();
         // iterate each known axolootl and either add it to the map or mark it to be removed
-        final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(registryAccess);
+        final AxolootlVariantSnapshot variants = AxRegistry.AxolootlVariantsReg.getSnapshot(registryAccess);
         for(Map.Entry<UUID, ResourceLocation> entry : trackedAxolootls.entrySet()) {
-            // validate axolootl
-            if(!AxRegistry.AxolootlVariantsReg.isValid(entry.getValue())) {
+            // validate and resolve axolootl variant
+            final int index = variants.indexOf(entry.getValue());
+            if(!variants.isValid(index)) {
                 invalid.add(entry.getKey());
                 continue;
             }
-            // resolve axolootl variant
-            Optional<AxolootlVariant> oVariant = registry.getOptional(entry.getValue());
-            oVariant.ifPresentOrElse(m -> builder.put(entry.getKey(), m), () -> invalid.add(entry.getKey()));
+            builder.put(entry.getKey(), variants.get(index));
         }
         // remove invalid axolootls
-        invalid.forEach(o -> this.trackedAxolootls.remove(o));
+        invalid.forEach(this::untrackAxolootl);
         return builder.build();
     }
 
@@ -1761,10 +2282,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     public Map<BlockPos, IEnergyStorage> resolveEnergyStorage(final Predicate<IEnergyStorage> predicate) {
         final ImmutableMap.Builder<BlockPos, IEnergyStorage> builder = ImmutableMap.builder();
         for(BlockPos entry : getEnergyInputs()) {
-            IEnergyStorage storage = resolveEnergyStorageOrVoid(level, entry, false);
-            if(predicate.test(storage)) {
-                builder.put(entry, storage);
-            }
+            energyHandles.get(level, entry).filter(predicate).ifPresent(storage -> builder.put(entry, storage));
         }
         return builder.build();
     }
@@ -1806,6 +2324,7 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         for(BlockPos p : invalid) {
             Axolootl.LOGGER.warn("Unknown aquarium modifier " + aquariumModifiers.get(p) + " at (" + p.toShortString() + ")");
             aquariumModifiers.remove(p);
+            modifiersVersion++;
         }
         return builder.build();
     }
@@ -1846,20 +2365,104 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
      */
     @Override
     public CompoundTag getUpdateTag() {
-        CompoundTag tag = new CompoundTag();
-        saveAdditional(tag);
+        CompoundTag tag = super.getUpdateTag();
+        // write client-visible data, held resources are not needed on the client
+        writeSharedData(tag);
         // write speeds
         tag.putDouble(KEY_GENERATION_SPEED, generationSpeed);
         tag.putDouble(KEY_FEED_SPEED, feedSpeed);
         tag.putDouble(KEY_BREED_SPEED, breedSpeed);
+        // write sync version
+        tag.putInt(KEY_SYNC_VERSION, syncVersion);
         return tag;
     }
 
+    /**
+     * Called when the block is updated. Sends the changes since the previous update when possible, otherwise sends a full snapshot.
+     * @return the update packet
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public Packet<ClientGamePacketListener> getUpdatePacket() {
+        if(this.level instanceof ServerLevel) {
+            final ClientBoundControllerSyncPacket.State previous = this.syncedState;
+            final int baseVersion = this.syncVersion;
+            this.syncedState = createSyncState(previous);
+            this.syncVersion++;
+            if(previous != null) {
+                final ClientBoundControllerSyncPacket packet = ClientBoundControllerSyncPacket.create(this, previous, this.syncedState, baseVersion, this.syncVersion);
+                return (Packet<ClientGamePacketListener>) AxNetwork.CHANNEL.toVanillaPacket(packet, NetworkDirection.PLAY_TO_CLIENT);
+            }
+        }
         return ClientboundBlockEntityDataPacket.create(this);
     }
 
+    /**
+     * Sends the full client-visible state to the given player, used when a menu is opened or the client is out of sync
+     * @param player the player
+     */
+    public void sendFullSnapshot(final ServerPlayer player) {
+        player.connection.send(ClientboundBlockEntityDataPacket.create(this));
+    }
+
+    /**
+     * @param previous the state that was sent in the previous update packet, if any
+     * @return a copy of the client-visible state, sharing the collections that did not change since the previous state
+     */
+    private ClientBoundControllerSyncPacket.State createSyncState(@Nullable final ClientBoundControllerSyncPacket.State previous) {
+        return new ClientBoundControllerSyncPacket.State(previous, size, trackedAxolootls, axolootlsVersion,
+                aquariumModifiers, activeAquariumModifiers, modifiersVersion, trackedBlocks, trackedBlocksVersion);
+    }
+
+    /**
+     * Applies the changes from a delta sync packet
+     * @param packet the sync packet
+     * @return false if the client does not have the base version of the state and needs a full snapshot
+     */
+    public boolean handleSyncPacket(final ClientBoundControllerSyncPacket packet) {
+        if(packet.getBaseVersion() != this.syncVersion) {
+            return false;
+        }
+        this.syncVersion = packet.getVersion();
+        // header
+        this.tankStatus = packet.getTankStatus();
+        this.feedStatus = packet.getFeedStatus();
+        this.breedStatus = packet.getBreedStatus();
+        this.generationSpeed = packet.getGenerationSpeed();
+        this.feedSpeed = packet.getFeedSpeed();
+        this.breedSpeed = packet.getBreedSpeed();
+        this.resourceGenerationTime = packet.getGenerationTime();
+        this.feedTime = packet.getFeedTime();
+        this.breedTime = packet.getBreedTime();
+        // size
+        if(packet.isSizeChanged()) {
+            setSize(packet.getSize());
+        }
+        // axolootls
+        packet.getRemovedAxolootls().forEach(this.trackedAxolootls::remove);
+        this.trackedAxolootls.putAll(packet.getAddedAxolootls());
+        // modifiers
+        packet.getRemovedModifiers().forEach(this.aquariumModifiers::remove);
+        this.aquariumModifiers.putAll(packet.getAddedModifiers());
+        this.activeAquariumModifiers.removeAll(packet.getDeactivatedModifiers());
+        this.activeAquariumModifiers.addAll(packet.getActivatedModifiers());
+        this.axolootlsVersion++;
+        this.modifiersVersion++;
+        // tracked blocks
+        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : packet.getRemovedBlocks().entrySet()) {
+            final Set<BlockPos> set = this.trackedBlocks.get(entry.getKey());
+            if(set != null) {
+                set.removeAll(entry.getValue());
+            }
+        }
+        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : packet.getAddedBlocks().entrySet()) {
+            this.trackedBlocks.computeIfAbsent(entry.getKey(), id -> new HashSet<>()).addAll(entry.getValue());
+        }
+        this.trackedBlocksVersion++;
+        this.forceCalculateBonuses();
+        return true;
+    }
+
     //// NBT ////
 
     private static final String KEY_TANK_STATUS = "Status";
@@ -1882,6 +2485,12 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
     private static final String KEY_GENERATION_SPEED = "GenerationSpeed";
     private static final String KEY_FEED_SPEED = "FeedSpeed";
     private static final String KEY_BREED_SPEED = "BreedSpeed";
+    private static final String KEY_OVERFLOW = "Overflow";
+    private static final String KEY_SYNC_VERSION = "SyncVersion";
+    private static final String KEY_LAST_TICK = "LastTick";
+    private static final String KEY_PACKED_AXOLOOTLS = "AxolootlData";
+    private static final String KEY_PACKED_MODIFIERS = "ModifierData";
+    private static final String KEY_PACKED_TRACKED_BLOCKS = "TrackedBlockData";
 
     @Override
     public void load(CompoundTag tag) {
@@ -1909,6 +2518,11 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         this.feedTime = tag.getLong(KEY_FEED_TIME);
         // read axolootl map
         this.trackedAxolootls.clear();
+        this.axolootlsVersion++;
+        if(tag.contains(KEY_PACKED_AXOLOOTLS, Tag.TAG_COMPOUND)) {
+            ControllerTagCache.readAxolootls(tag.getCompound(KEY_PACKED_AXOLOOTLS), this.trackedAxolootls);
+        }
+        // legacy format
         final ListTag axolootlList = tag.getList(KEY_AXOLOOTLS, Tag.TAG_COMPOUND);
         for(int i = 0, n = axolootlList.size(); i < n; i++) {
             CompoundTag entryTag = axolootlList.getCompound(i);
@@ -1919,6 +2533,11 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         // read modifier map
         this.aquariumModifiers.clear();
         this.activeAquariumModifiers.clear();
+        this.modifiersVersion++;
+        if(tag.contains(KEY_PACKED_MODIFIERS, Tag.TAG_COMPOUND)) {
+            ControllerTagCache.readModifiers(tag.getCompound(KEY_PACKED_MODIFIERS), this.aquariumModifiers, this.activeAquariumModifiers);
+        }
+        // legacy format
         final ListTag modifierList = tag.getList(KEY_MODIFIERS, Tag.TAG_COMPOUND);
         for(int i = 0, n = modifierList.size(); i < n; i++) {
             CompoundTag entryTag = modifierList.getCompound(i);
@@ -1932,6 +2551,11 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         }
         // read tracked blocks
         this.trackedBlocks.clear();
+        this.trackedBlocksVersion++;
+        if(tag.contains(KEY_PACKED_TRACKED_BLOCKS, Tag.TAG_COMPOUND)) {
+            ControllerTagCache.readTrackedBlocks(tag.getCompound(KEY_PACKED_TRACKED_BLOCKS), this.trackedBlocks);
+        }
+        // legacy format
         final ListTag blockList = tag.getList(KEY_TRACKED_BLOCKS, Tag.TAG_COMPOUND);
         for(int i = 0, n = blockList.size(); i < n; i++) {
             CompoundTag entryTag = blockList.getCompound(i);
@@ -1939,14 +2563,56 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
             Set<BlockPos> set = new HashSet<>(readBlockPosSet(entryTag, KEY_POSITIONS));
             this.trackedBlocks.put(category, set);
         }
+        // read overflow
+        this.overflow.clear();
+        final ListTag overflowList = tag.getList(KEY_OVERFLOW, Tag.TAG_COMPOUND);
+        for(int i = 0, n = overflowList.size(); i < n; i++) {
+            ItemStack itemStack = ItemStack.of(overflowList.getCompound(i));
+            if(!itemStack.isEmpty()) {
+                this.overflow.add(itemStack);
+            }
+        }
+        this.isOutputFull |= !this.overflow.isEmpty();
+        // read last tick, including any ticks that were not caught up
+        if(tag.contains(KEY_LAST_TICK)) {
+            this.lastTickTime = tag.getLong(KEY_LAST_TICK);
+            this.missedTicks = 0;
+        }
+        // rebuild bonus totals from the loaded data
+        this.reconcileBonuses = true;
+        // read sync version
+        if(tag.contains(KEY_SYNC_VERSION)) {
+            this.syncVersion = tag.getInt(KEY_SYNC_VERSION);
+        }
     }
 
     @Override
     public void saveAdditional(CompoundTag tag) {
         super.saveAdditional(tag);
+        writeSharedData(tag);
+        // write last tick, moved back by the ticks that were not caught up
+        if(lastTickTime != Long.MIN_VALUE) {
+            tag.putLong(KEY_LAST_TICK, lastTickTime - missedTicks);
+        }
+        // write overflow
+        if(!overflow.isEmpty()) {
+            final ListTag overflowList = new ListTag();
+            for(ItemStack itemStack : overflow) {
+                overflowList.add(itemStack.save(new CompoundTag()));
+            }
+            tag.put(KEY_OVERFLOW, overflowList);
+        }
+    }
+
+    /**
+     * Writes the data that is both saved to disk and visible to the client.
+     * The large collections are written in a packed format that is cached until they change.
+     * @param tag the compound tag
+     */
+    private void writeSharedData(CompoundTag tag) {
         // write tank size
         if(this.hasTank()) {
-            writeToTag(tag, KEY_SIZE, this.size, TankMultiblock.Size.CODEC);
+            tag.put(KEY_SIZE, tagCache.writeSize(this.size));
         }
         // write statuses
         tag.putString(KEY_TANK_STATUS, tankStatus.getSerializedName());
@@ -1956,34 +2622,10 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         tag.putLong(KEY_GENERATION_TIME, resourceGenerationTime);
         tag.putLong(KEY_BREED_TIME, breedTime);
         tag.putLong(KEY_FEED_TIME, feedTime);
-        // write axolootl list
-        final ListTag axolootlList = new ListTag();
-        for(Map.Entry<UUID, ResourceLocation> entry : trackedAxolootls.entrySet()) {
-            CompoundTag entryTag = new CompoundTag();
-            entryTag.putUUID(KEY_UUID, entry.getKey());
-            entryTag.putString(KEY_VARIANT, entry.getValue().toString());
-            axolootlList.add(entryTag);
-        }
-        tag.put(KEY_AXOLOOTLS, axolootlList);
-        // write modifier map
-        final ListTag modifierList = new ListTag();
-        for(Map.Entry<BlockPos, ResourceLocation> entry : aquariumModifiers.entrySet()) {
-            CompoundTag entryTag = new CompoundTag();
-            entryTag.put(KEY_POS, NbtUtils.writeBlockPos(entry.getKey()));
-            entryTag.putBoolean(KEY_ACTIVE, this.activeAquariumModifiers.contains(entry.getKey()));
-            entryTag.putString(KEY_MODIFIER, entry.getValue().toString());
-            modifierList.add(entryTag);
-        }
-        tag.put(KEY_MODIFIERS, modifierList);
-        // write tracked blocks
-        ListTag blockList = new ListTag();
-        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : trackedBlocks.entrySet()) {
-            CompoundTag entryTag = new CompoundTag();
-            entryTag.putString(KEY_CATEGORY, entry.getKey().toString());
-            writeBlockPosSet(entryTag, KEY_POSITIONS, entry.getValue());
-            blockList.add(entryTag);
-        }
-        tag.put(KEY_TRACKED_BLOCKS, blockList);
+        // write packed collections
+        tag.put(KEY_PACKED_AXOLOOTLS, tagCache.writeAxolootls(trackedAxolootls, axolootlsVersion));
+        tag.put(KEY_PACKED_MODIFIERS, tagCache.writeModifiers(aquariumModifiers, activeAquariumModifiers, modifiersVersion));
+        tag.put(KEY_PACKED_TRACKED_BLOCKS, tagCache.writeTrackedBlocks(trackedBlocks, trackedBlocksVersion));
     }
 
     private static Set<BlockPos> readBlockPosSet(CompoundTag tag, String key) {
@@ -1997,23 +2639,9 @@ public class ControllerBlockEntity extends BlockEntity implements MenuProvider,
         return set;
     }
 
-    private static void writeBlockPosSet(CompoundTag tag, String key, Set<BlockPos> set) {
-        final ListTag listTag = new ListTag();
-        for(BlockPos pos : set) {
-            listTag.add(new IntArrayTag(new int[] { pos.getX(), pos.getY(), pos.getZ() }));
-        }
-        tag.put(key, listTag);
-    }
-
     private static <T> T readFromTag(CompoundTag tag, String key, Codec<T> codec) {
         return codec.parse(NbtOps.INSTANCE, tag.get(key))
                 .resultOrPartial(s -> Axolootl.LOGGER.error("[ControllerBlockEntity#readFromTag] Failed to deserialize " + tag.get(key) + " with key \"" + key + "\"\n" + s))
                 .orElseThrow();
     }
-
-    private static <T> void writeToTag(CompoundTag tag, String key, T object, Codec<T> codec) {
-        tag.put(key, codec.encodeStart(NbtOps.INSTANCE, object)
-                .resultOrPartial(s -> Axolootl.LOGGER.error("[ControllerBlockEntity#writeToTag] Failed to serialize " + object.toString() + " with key \"" + key + "\"\n" + s))
-                .orElseThrow());
-    }
 }
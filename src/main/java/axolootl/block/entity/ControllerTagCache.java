@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import axolootl.Axolootl;
+import axolootl.util.TankMultiblock;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.ByteArrayTag;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes the large collections of a controller using packed arrays and a resource location palette,
+ * and caches each encoded tag until the version of the collection it was created from changes.
+ */
+final class ControllerTagCache {
+
+    private static final String KEY_PALETTE = "Palette";
+    private static final String KEY_IDS = "Ids";
+    private static final String KEY_VARIANTS = "Variants";
+    private static final String KEY_POSITIONS = "Positions";
+    private static final String KEY_MODIFIERS = "Modifiers";
+    private static final String KEY_ACTIVE = "Active";
+
+    // SIZE //
+    @Nullable
+    private TankMultiblock.Size size;
+    @Nullable
+    private Tag sizeTag;
+    // AXOLOOTLS //
+    private int axolootlsVersion;
+    @Nullable
+    private CompoundTag axolootlsTag;
+    // MODIFIERS //
+    private int modifiersVersion;
+    @Nullable
+    private CompoundTag modifiersTag;
+    // TRACKED BLOCKS //
+    private int trackedBlocksVersion;
+    @Nullable
+    private CompoundTag trackedBlocksTag;
+
+    /**
+     * @param size the tank size
+     * @return the encoded tank size, reusing the cached tag if the size did not change
+     */
+    Tag writeSize(final TankMultiblock.Size size) {
+        if(null == sizeTag || !size.equals(this.size)) {
+            this.size = size;
+            this.sizeTag = TankMultiblock.Size.CODEC.encodeStart(NbtOps.INSTANCE, size)
+                    .resultOrPartial(s -> Axolootl.LOGGER.error("[ControllerTagCache#writeSize] Failed to serialize " + size + "\n" + s))
+                    .orElseThrow();
+        }
+        return sizeTag.copy();
+    }
+
+    /**
+     * @param map the tracked axolootls
+     * @param version the version of the tracked axolootls
+     * @return the packed axolootls tag, reusing the cached tag if the version did not change
+     */
+    CompoundTag writeAxolootls(final Map<UUID, ResourceLocation> map, final int version) {
+        if(null == axolootlsTag || version != axolootlsVersion) {
+            axolootlsVersion = version;
+            axolootlsTag = packAxolootls(map);
+        }
+        return axolootlsTag.copy();
+    }
+
+    /**
+     * @param map the aquarium modifiers
+     * @param active the active aquarium modifiers
+     * @param version the version of the aquarium modifiers and active aquarium modifiers
+     * @return the packed modifiers tag, reusing the cached tag if the version did not change
+     */
+    CompoundTag writeModifiers(final Map<BlockPos, ResourceLocation> map, final Set<BlockPos> active, final int version) {
+        if(null == modifiersTag || version != modifiersVersion) {
+            modifiersVersion = version;
+            modifiersTag = packModifiers(map, active);
+        }
+        return modifiersTag.copy();
+    }
+
+    /**
+     * @param map the tracked blocks for each category
+     * @param version the version of the tracked blocks
+     * @return the packed tracked blocks tag, reusing the cached tag if the version did not change
+     */
+    CompoundTag writeTrackedBlocks(final Map<ResourceLocation, Set<BlockPos>> map, final int version) {
+        if(null == trackedBlocksTag || version != trackedBlocksVersion) {
+            trackedBlocksVersion = version;
+            trackedBlocksTag = packTrackedBlocks(map);
+        }
+        return trackedBlocksTag.copy();
+    }
+
+    //// PACK ////
+
+    private static CompoundTag packAxolootls(final Map<UUID, ResourceLocation> map) {
+        final Palette palette = new Palette();
+        final long[] ids = new long[map.size() * 2];
+        final int[] variants = new int[map.size()];
+        int i = 0;
+        for(Map.Entry<UUID, ResourceLocation> entry : map.entrySet()) {
+            ids[i * 2] = entry.getKey().getMostSignificantBits();
+            ids[i * 2 + 1] = entry.getKey().getLeastSignificantBits();
+            variants[i++] = palette.indexOf(entry.getValue());
+        }
+        final CompoundTag tag = new CompoundTag();
+        tag.put(KEY_PALETTE, palette.toTag());
+        tag.put(KEY_IDS, new LongArrayTag(ids));
+        tag.put(KEY_VARIANTS, new IntArrayTag(variants));
+        return tag;
+    }
+
+    private static CompoundTag packModifiers(final Map<BlockPos, ResourceLocation> map, final Set<BlockPos> active) {
+        final Palette palette = new Palette();
+        final long[] positions = new long[map.size()];
+        final int[] modifiers = new int[map.size()];
+        final byte[] flags = new byte[map.size()];
+        int i = 0;
+        for(Map.Entry<BlockPos, ResourceLocation> entry : map.entrySet()) {
+            positions[i] = entry.getKey().asLong();
+            modifiers[i] = palette.indexOf(entry.getValue());
+            flags[i++] = (byte) (active.contains(entry.getKey()) ? 1 : 0);
+        }
+        final CompoundTag tag = new CompoundTag();
+        tag.put(KEY_PALETTE, palette.toTag());
+        tag.put(KEY_POSITIONS, new LongArrayTag(positions));
+        tag.put(KEY_MODIFIERS, new IntArrayTag(modifiers));
+        tag.put(KEY_ACTIVE, new ByteArrayTag(flags));
+        return tag;
+    }
+
+    private static CompoundTag packTrackedBlocks(final Map<ResourceLocation, Set<BlockPos>> map) {
+        final CompoundTag tag = new CompoundTag();
+        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : map.entrySet()) {
+            final long[] positions = new long[entry.getValue().size()];
+            int i = 0;
+            for(BlockPos pos : entry.getValue()) {
+                positions[i++] = pos.asLong();
+            }
+            tag.put(entry.getKey().toString(), new LongArrayTag(positions));
+        }
+        return tag;
+    }
+
+    //// UNPACK ////
+
+    /**
+     * @param tag the packed axolootls tag
+     * @param map the map to fill with tracked axolootls
+     */
+    static void readAxolootls(final CompoundTag tag, final Map<UUID, ResourceLocation> map) {
+        final List<ResourceLocation> palette = readPalette(tag);
+        final long[] ids = tag.getLongArray(KEY_IDS);
+        final int[] variants = tag.getIntArray(KEY_VARIANTS);
+        for(int i = 0, n = Math.min(ids.length / 2, variants.length); i < n; i++) {
+            if(variants[i] < 0 || variants[i] >= palette.size()) continue;
+            map.put(new UUID(ids[i * 2], ids[i * 2 + 1]), palette.get(variants[i]));
+        }
+    }
+
+    /**
+     * @param tag the packed modifiers tag
+     * @param map the map to fill with aquarium modifiers
+     * @param active the set to fill with active aquarium modifiers
+     */
+    static void readModifiers(final CompoundTag tag, final Map<BlockPos, ResourceLocation> map, final Set<BlockPos> active) {
+        final List<ResourceLocation> palette = readPalette(tag);
+        final long[] positions = tag.getLongArray(KEY_POSITIONS);
+        final int[] modifiers = tag.getIntArray(KEY_MODIFIERS);
+        final byte[] flags = tag.getByteArray(KEY_ACTIVE);
+        for(int i = 0, n = Math.min(positions.length, modifiers.length); i < n; i++) {
+            if(modifiers[i] < 0 || modifiers[i] >= palette.size()) continue;
+            final BlockPos pos = BlockPos.of(positions[i]);
+            map.put(pos, palette.get(modifiers[i]));
+            if(i < flags.length && flags[i] != 0) {
+                active.add(pos);
+            }
+        }
+    }
+
+    /**
+     * @param tag the packed tracked blocks tag
+     * @param map the map to fill with tracked blocks for each category
+     */
+    static void readTrackedBlocks(final CompoundTag tag, final Map<ResourceLocation, Set<BlockPos>> map) {
+        for(String key : tag.getAllKeys()) {
+            final ResourceLocation category = ResourceLocation.tryParse(key);
+            if(null == category) continue;
+            final long[] positions = tag.getLongArray(key);
+            final Set<BlockPos> set = new HashSet<>(positions.length);
+            for(long l : positions) {
+                set.add(BlockPos.of(l));
+            }
+            map.put(category, set);
+        }
+    }
+
+    private static List<ResourceLocation> readPalette(final CompoundTag tag) {
+        final ListTag listTag = tag.getList(KEY_PALETTE, Tag.TAG_STRING);
+        final List<ResourceLocation> list = new ArrayList<>(listTag.size());
+        for(int i = 0, n = listTag.size(); i < n; i++) {
+            list.add(new ResourceLocation(listTag.getString(i)));
+        }
+        return list;
+    }
+
+    /**
+     * Assigns an index to each unique resource location
+     */
+    private static final class Palette {
+        private final Object2IntMap<ResourceLocation> indices = new Object2IntOpenHashMap<>();
+        private final List<ResourceLocation> values = new ArrayList<>();
+
+        private int indexOf(final ResourceLocation id) {
+            return indices.computeIfAbsent(id, o -> {
+                values.add(id);
+                return values.size() - 1;
+            });
+        }
+
+        private ListTag toTag() {
+            final ListTag tag = new ListTag();
+            for(ResourceLocation id : values) {
+                tag.add(StringTag.valueOf(id.toString()));
+            }
+            return tag;
+        }
+    }
+}
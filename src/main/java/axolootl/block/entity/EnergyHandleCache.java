@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.energy.IEnergyStorage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Holds the energy capability of each known block position so that it does not need to be queried every tick.
+ * Each entry is removed when the capability is invalidated or the block entity that provided it is removed.
+ */
+public final class EnergyHandleCache {
+
+    private final Map<BlockPos, Entry> handles = new HashMap<>();
+    /** The handles that already have an invalidation listener, weak so that handles are released with their block entity **/
+    private final Set<LazyOptional<IEnergyStorage>> listening = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * @param level the level
+     * @param pos the block position
+     * @return the energy storage at the given position, if any
+     */
+    public Optional<IEnergyStorage> get(final Level level, final BlockPos pos) {
+        Entry entry = handles.get(pos);
+        // verify cached handle is still valid
+        if(entry != null && entry.isValid()) {
+            return entry.handle.resolve();
+        }
+        handles.remove(pos);
+        // query block entity
+        final BlockEntity blockEntity = level.getBlockEntity(pos);
+        if(null == blockEntity) {
+            return Optional.empty();
+        }
+        final LazyOptional<IEnergyStorage> handle = blockEntity.getCapability(ForgeCapabilities.ENERGY);
+        if(!handle.isPresent()) {
+            return Optional.empty();
+        }
+        // cache handle and remove it when invalidated, adding only one listener for each handle
+        handles.put(pos.immutable(), new Entry(blockEntity, handle));
+        if(listening.add(handle)) {
+            handle.addListener(o -> handles.values().removeIf(e -> e.handle == o));
+        }
+        return handle.resolve();
+    }
+
+    /**
+     * Resolves the energy storage at each position that passes the given predicate
+     * @param level the level
+     * @param positions the block positions
+     * @param predicate the predicate to filter energy storage handlers
+     * @param list the list to fill with energy storage handlers
+     * @return the list
+     */
+    public List<IEnergyStorage> collect(final Level level, final Iterable<BlockPos> positions, final Predicate<IEnergyStorage> predicate, final List<IEnergyStorage> list) {
+        for(BlockPos pos : positions) {
+            get(level, pos).filter(predicate).ifPresent(list::add);
+        }
+        return list;
+    }
+
+    /**
+     * Removes the cached handles that do not pass the given predicate
+     * @param predicate a predicate for the block positions to keep
+     */
+    public void retain(final Predicate<BlockPos> predicate) {
+        handles.keySet().removeIf(predicate.negate());
+    }
+
+    /**
+     * @return the number of cached handles
+     */
+    public int size() {
+        return handles.size();
+    }
+
+    /**
+     * Removes all cached handles
+     */
+    public void clear() {
+        handles.clear();
+    }
+
+    private static final class Entry {
+        private final BlockEntity blockEntity;
+        private final LazyOptional<IEnergyStorage> handle;
+
+        private Entry(final BlockEntity blockEntity, final LazyOptional<IEnergyStorage> handle) {
+            this.blockEntity = blockEntity;
+            this.handle = handle;
+        }
+
+        private boolean isValid() {
+            return !blockEntity.isRemoved() && handle.isPresent();
+        }
+    }
+}
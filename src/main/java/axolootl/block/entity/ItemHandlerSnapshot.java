@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import net.minecraft.core.HolderSet;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the extractable items of one or more item handlers by item so that a single feed or breed pass
+ * can look up food without walking and simulating every slot for each axolootl.
+ * The snapshot is only valid for the pass that created it.
+ */
+public final class ItemHandlerSnapshot {
+
+    /** The extractable slots for each item, in handler and slot order **/
+    private final Map<Item, List<Slot>> items = new LinkedHashMap<>();
+    /** True when at least one item could be extracted when the snapshot was created **/
+    private boolean nonEmpty;
+
+    private ItemHandlerSnapshot() {}
+
+    /**
+     * @param handlers the item handlers, in the order they should be searched
+     * @return a new snapshot of the extractable items in the given item handlers
+     */
+    public static ItemHandlerSnapshot create(final Collection<IItemHandler> handlers) {
+        final ItemHandlerSnapshot snapshot = new ItemHandlerSnapshot();
+        for(IItemHandler handler : handlers) {
+            for(int i = 0, n = handler.getSlots(); i < n; i++) {
+                // validate item can be extracted
+                final ItemStack sample = handler.extractItem(i, 1, true);
+                if(sample.isEmpty()) continue;
+                final int count = handler.getStackInSlot(i).getCount();
+                snapshot.items.computeIfAbsent(sample.getItem(), item -> new ArrayList<>(1)).add(new Slot(handler, i, sample, Math.max(1, count)));
+                snapshot.nonEmpty = true;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return true if no items could be extracted when the snapshot was created
+     */
+    public boolean isEmpty() {
+        return !nonEmpty;
+    }
+
+    /**
+     * @return the items that had extractable slots when the snapshot was created, in the order they were found
+     */
+    public Set<Item> getItems() {
+        return Collections.unmodifiableSet(items.keySet());
+    }
+
+    /**
+     * @param item the item
+     * @return the first slot containing the given item that has not been used up, or null if none was found
+     */
+    @Nullable
+    public Slot find(final Item item) {
+        return find(item, null);
+    }
+
+    /**
+     * @param holderSet the items to search for
+     * @param reserved a slot that will already give one item, or null
+     * @return the first slot containing any item in the holder set that has not been used up, or null if none was found
+     */
+    @Nullable
+    public Slot find(final HolderSet<Item> holderSet, @Nullable final Slot reserved) {
+        for(Map.Entry<Item, List<Slot>> entry : items.entrySet()) {
+            if(!holderSet.contains(entry.getKey().builtInRegistryHolder())) continue;
+            final Slot slot = find(entry.getKey(), reserved);
+            if(slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param item the item
+     * @param reserved a slot that will already give one item, or null
+     * @return the first slot containing the given item that has not been used up, or null if none was found
+     */
+    @Nullable
+    private Slot find(final Item item, @Nullable final Slot reserved) {
+        final List<Slot> list = items.get(item);
+        if(null == list) {
+            return null;
+        }
+        for(Slot slot : list) {
+            if(slot.count > (slot == reserved ? 1 : 0)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts one item from the given slot and updates the snapshot
+     * @param slot the slot
+     * @return the extracted item, or an empty stack if the item could not be extracted
+     */
+    public ItemStack extract(final Slot slot) {
+        final ItemStack extracted = slot.handler.extractItem(slot.slot, 1, false);
+        slot.count = extracted.isEmpty() ? 0 : slot.count - 1;
+        return extracted;
+    }
+
+    public static final class Slot {
+        private final IItemHandler handler;
+        private final int slot;
+        private final ItemStack sample;
+        private int count;
+
+        private Slot(IItemHandler handler, int slot, ItemStack sample, int count) {
+            this.handler = handler;
+            this.slot = slot;
+            this.sample = sample;
+            this.count = count;
+        }
+
+        /**
+         * @return a single item from this slot as it was when the snapshot was created. Do not modify.
+         */
+        public ItemStack getSample() {
+            return sample;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.block.entity;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the partially filled and empty slots of an output item handler so that
+ * merged item stacks can be inserted without scanning every slot for every stack.
+ * The index is only valid for the insertion pass that created it.
+ */
+public final class ItemOutputIndex {
+
+    private final IItemHandler handler;
+    /** The slots that contain each item and may have room for more, in slot order **/
+    private final Map<Item, IntList> partialSlots = new HashMap<>();
+    /** The empty slots, in slot order **/
+    private final IntList emptySlots = new IntArrayList();
+    /** The index of the next empty slot to use **/
+    private int nextEmptySlot;
+
+    /**
+     * @param handler the item handler to index
+     */
+    public ItemOutputIndex(final IItemHandler handler) {
+        this.handler = handler;
+        for(int i = 0, n = handler.getSlots(); i < n; i++) {
+            final ItemStack itemStack = handler.getStackInSlot(i);
+            if(itemStack.isEmpty()) {
+                emptySlots.add(i);
+            } else if(itemStack.getCount() < Math.min(itemStack.getMaxStackSize(), handler.getSlotLimit(i))) {
+                partialSlots.computeIfAbsent(itemStack.getItem(), item -> new IntArrayList(1)).add(i);
+            }
+        }
+    }
+
+    /**
+     * Attempts to insert the item stack, first stacking with existing items and then into empty slots
+     * @param itemStack the item stack to insert, which may be larger than its max stack size
+     * @param simulate true to simulate the operation
+     * @return the remaining item stack that could not be inserted
+     */
+    public ItemStack insert(ItemStack itemStack, final boolean simulate) {
+        // stack with existing items
+        final IntList partial = partialSlots.get(itemStack.getItem());
+        if(partial != null) {
+            for(int i = 0; i < partial.size() && !itemStack.isEmpty(); i++) {
+                final int slot = partial.getInt(i);
+                if(!ItemHandlerHelper.canItemStacksStack(handler.getStackInSlot(slot), itemStack)) continue;
+                itemStack = handler.insertItem(slot, itemStack, simulate);
+            }
+        }
+        // insert into empty slots
+        int slotIndex = nextEmptySlot;
+        while(!itemStack.isEmpty() && slotIndex < emptySlots.size()) {
+            final int slot = emptySlots.getInt(slotIndex);
+            itemStack = handler.insertItem(slot, itemStack, simulate);
+            // the slot is no longer empty, so track it as a partial slot
+            if(!simulate && !handler.getStackInSlot(slot).isEmpty()) {
+                nextEmptySlot = slotIndex + 1;
+                partialSlots.computeIfAbsent(handler.getStackInSlot(slot).getItem(), item -> new IntArrayList(1)).add(slot);
+            }
+            slotIndex++;
+        }
+        return itemStack;
+    }
+
+    /**
+     * Combines item stacks with the same item and tag
+     * @param itemStacks the item stacks to merge
+     * @return a list of merged item stacks, in the order each item first appeared, with counts that may exceed the max stack size
+     */
+    public static List<ItemStack> merge(final Collection<ItemStack> itemStacks) {
+        final List<ItemStack> merged = new ArrayList<>(Math.min(itemStacks.size(), 16));
+        final Map<Item, List<ItemStack>> byItem = new HashMap<>();
+        for(ItemStack itemStack : itemStacks) {
+            if(itemStack.isEmpty()) continue;
+            final List<ItemStack> list = byItem.computeIfAbsent(itemStack.getItem(), item -> new ArrayList<>(1));
+            boolean found = false;
+            for(ItemStack entry : list) {
+                if(ItemStack.isSameItemSameTags(entry, itemStack)) {
+                    entry.grow(itemStack.getCount());
+                    found = true;
+                    break;
+                }
+            }
+            if(!found) {
+                final ItemStack copy = itemStack.copy();
+                list.add(copy);
+                merged.add(copy);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Splits item stacks that exceed their max stack size
+     * @param itemStacks the item stacks to split
+     * @return a list of item stacks that do not exceed their max stack size
+     */
+    public static List<ItemStack> split(final Collection<ItemStack> itemStacks) {
+        final List<ItemStack> list = new ArrayList<>(itemStacks.size());
+        for(ItemStack itemStack : itemStacks) {
+            final ItemStack copy = itemStack.copy();
+            while(copy.getCount() > copy.getMaxStackSize()) {
+                list.add(copy.split(copy.getMaxStackSize()));
+            }
+            if(!copy.isEmpty()) {
+                list.add(copy);
+            }
+        }
+        return list;
+    }
+}
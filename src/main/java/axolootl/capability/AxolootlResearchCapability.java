@@ -10,7 +10,6 @@ import axolootl.Axolootl;
 import axolootl.network.AxNetwork;
 import axolootl.network.ClientBoundSyncAxolootlResearchCapabilityPacket;
 import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
@@ -23,31 +22,54 @@ import net.minecraftforge.common.util.INBTSerializable;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.network.PacketDistributor;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Stores the axolootl variants known by a player as one bit for each variant in the {@link AxolootlResearchIndex}.
+ * IDs that are not in the index, such as variants from a removed datapack, are kept separately so they are not lost when saved.
+ */
 public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
 
     public static final ResourceLocation REGISTRY_NAME = new ResourceLocation(Axolootl.MODID, "research");
-    public static final AxolootlResearchCapability EMPTY = new AxolootlResearchCapability();
+    public static final AxolootlResearchCapability EMPTY = new AxolootlResearchCapability(null);
 
-    public Collection<ResourceLocation> axolootls;
-    public Collection<ResourceLocation> axolootlsView;
+    /** The player that owns this capability, used to load the index **/
+    @Nullable
+    private final Player player;
+    private AxolootlResearchIndex index;
+    private final BitSet research;
+    private final Set<ResourceLocation> unindexed;
+    /** The known axolootls, created when needed and cleared when research changes **/
+    @Nullable
+    private Collection<ResourceLocation> axolootlsView;
 
-    public AxolootlResearchCapability() {
-        this.axolootls = new HashSet<>();
-        this.axolootlsView = Collections.unmodifiableCollection(axolootls);
+    public AxolootlResearchCapability(@Nullable final Player player) {
+        this.player = player;
+        this.index = AxolootlResearchIndex.EMPTY;
+        this.research = new BitSet();
+        this.unindexed = new HashSet<>();
     }
 
-    public static AxolootlResearchCapability.Provider provider() {
-        return new AxolootlResearchCapability.Provider();
+    public static AxolootlResearchCapability.Provider provider(final Player player) {
+        return new AxolootlResearchCapability.Provider(player);
     }
 
     /**
      * @return an unmodifiable view of the known axolootls
      */
     public Collection<ResourceLocation> getAxolootls() {
+        if(null == this.axolootlsView) {
+            final List<ResourceLocation> list = getIndex().getIds(research, new ArrayList<>());
+            list.addAll(unindexed);
+            this.axolootlsView = Collections.unmodifiableList(list);
+        }
         return this.axolootlsView;
     }
 
@@ -56,7 +78,18 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      * @return true if the collection changed as a result of this operation
      */
     public boolean addAxolootl(final ResourceLocation id) {
-        return this.axolootls.add(id);
+        final int i = getIndex().indexOf(id);
+        final boolean changed;
+        if(i < 0) {
+            changed = unindexed.add(id);
+        } else {
+            changed = !research.get(i);
+            research.set(i);
+        }
+        if(changed) {
+            this.axolootlsView = null;
+        }
+        return changed;
     }
 
     /**
@@ -64,7 +97,11 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      * @return true if the collection changed as a result of this operation
      */
     public boolean addAxolootls(final Collection<ResourceLocation> ids) {
-        return this.axolootls.addAll(ids);
+        boolean changed = false;
+        for(ResourceLocation id : ids) {
+            changed |= addAxolootl(id);
+        }
+        return changed;
     }
 
     /**
@@ -76,7 +113,28 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      */
     public boolean addAxolootl(final ServerPlayer player, final ResourceLocation id) {
         if(addAxolootl(id)) {
-            syncToClient(player);
+            sendDelta(player, List.of(id), List.of());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the axolootls and syncs only the added axolootls to the client
+     * @param player the server player
+     * @param ids the axolootl IDs to add
+     * @return true if the collection changed as a result of this operation
+     * @see #addAxolootl(ResourceLocation)
+     */
+    public boolean addAxolootls(final ServerPlayer player, final Collection<ResourceLocation> ids) {
+        final List<ResourceLocation> added = new ArrayList<>();
+        for(ResourceLocation id : ids) {
+            if(addAxolootl(id)) {
+                added.add(id);
+            }
+        }
+        if(!added.isEmpty()) {
+            sendDelta(player, added, List.of());
             return true;
         }
         return false;
@@ -87,7 +145,18 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      * @return true if the collection changed as a result of this operation
      */
     public boolean removeAxolootl(final ResourceLocation id) {
-        return this.axolootls.remove(id);
+        final int i = getIndex().indexOf(id);
+        final boolean changed;
+        if(i < 0) {
+            changed = unindexed.remove(id);
+        } else {
+            changed = research.get(i);
+            research.clear(i);
+        }
+        if(changed) {
+            this.axolootlsView = null;
+        }
+        return changed;
     }
 
     /**
@@ -99,7 +168,7 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      */
     public boolean removeAxolootl(final ServerPlayer player, final ResourceLocation id) {
         if(removeAxolootl(id)) {
-            syncToClient(player);
+            sendDelta(player, List.of(), List.of(id));
             return true;
         }
         return false;
@@ -123,9 +192,11 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      * @return true if the collection changed as a result of this operation
      */
     public boolean clear() {
-        int size = this.axolootls.size();
-        this.axolootls.clear();
-        return size > 0;
+        final boolean changed = !research.isEmpty() || !unindexed.isEmpty();
+        this.research.clear();
+        this.unindexed.clear();
+        this.axolootlsView = null;
+        return changed;
     }
 
     /**
@@ -133,7 +204,90 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
      * @return true if the collection contains the given axolootl ID
      */
     public boolean containsAxolootl(final ResourceLocation id) {
-        return this.axolootls.contains(id);
+        final int i = getIndex().indexOf(id);
+        return (i < 0) ? unindexed.contains(id) : research.get(i);
+    }
+
+    //// INDEX ////
+
+    /**
+     * Loads the current index and moves the research to it if the index changed since it was last loaded
+     * @return the current index
+     */
+    private AxolootlResearchIndex getIndex() {
+        final AxolootlResearchIndex current = (player != null) ? AxolootlResearchIndex.get(player.level.registryAccess()) : AxolootlResearchIndex.EMPTY;
+        if(current != this.index) {
+            // collect research using the previous index
+            final List<ResourceLocation> ids = this.index.getIds(research, new ArrayList<>());
+            ids.addAll(unindexed);
+            this.research.clear();
+            this.unindexed.clear();
+            // add research using the current index
+            this.index = current;
+            for(ResourceLocation id : ids) {
+                final int i = current.indexOf(id);
+                if(i < 0) {
+                    unindexed.add(id);
+                } else {
+                    research.set(i);
+                }
+            }
+            this.axolootlsView = null;
+        }
+        return this.index;
+    }
+
+    //// NETWORK ////
+
+    /**
+     * Sends all known axolootls that are in the index
+     * @param serverPlayer the server player
+     */
+    public void syncToClient(ServerPlayer serverPlayer) {
+        // send packet to client
+        final AxolootlResearchIndex index = getIndex();
+        AxNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> serverPlayer), ClientBoundSyncAxolootlResearchCapabilityPacket.full(index.getFingerprint(), research));
+    }
+
+    /**
+     * Sends the axolootls that were added or removed
+     * @param serverPlayer the server player
+     * @param added the axolootl IDs that were added
+     * @param removed the axolootl IDs that were removed
+     */
+    private void sendDelta(final ServerPlayer serverPlayer, final Collection<ResourceLocation> added, final Collection<ResourceLocation> removed) {
+        final AxolootlResearchIndex index = getIndex();
+        final int[] addedIndices = added.stream().mapToInt(index::indexOf).filter(i -> i >= 0).toArray();
+        final int[] removedIndices = removed.stream().mapToInt(index::indexOf).filter(i -> i >= 0).toArray();
+        if(addedIndices.length > 0 || removedIndices.length > 0) {
+            AxNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> serverPlayer), ClientBoundSyncAxolootlResearchCapabilityPacket.delta(index.getFingerprint(), addedIndices, removedIndices));
+        }
+    }
+
+    /**
+     * Applies research that was sent from the server
+     * @param packet the packet
+     * @return true if the packet was created with the same index as this capability
+     */
+    public boolean applySync(final ClientBoundSyncAxolootlResearchCapabilityPacket packet) {
+        final AxolootlResearchIndex index = getIndex();
+        if(packet.getFingerprint() != index.getFingerprint()) {
+            return false;
+        }
+        if(packet.isFull()) {
+            this.research.clear();
+            this.unindexed.clear();
+            this.research.or(packet.getResearch());
+        } else {
+            for(int i : packet.getAdded()) {
+                this.research.set(i);
+            }
+            for(int i : packet.getRemoved()) {
+                this.research.clear(i);
+            }
+        }
+        this.axolootlsView = null;
+        return true;
     }
 
     //// NBT ////
@@ -141,7 +295,7 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
     @Override
     public ListTag serializeNBT() {
         final ListTag listTag = new ListTag();
-        for(ResourceLocation id : axolootls) {
+        for(ResourceLocation id : getAxolootls()) {
             listTag.add(StringTag.valueOf(id.toString()));
         }
         return listTag;
@@ -150,30 +304,25 @@ public class AxolootlResearchCapability implements INBTSerializable<ListTag> {
     @Override
     public void deserializeNBT(ListTag tag) {
         // prepare to read list
-        this.axolootls.clear();
+        clear();
         // validate type
         if(tag.getElementType() != Tag.TAG_STRING) {
             return;
         }
         // read list
         for(int i = 0, n = tag.size(); i < n; i++) {
-            this.axolootls.add(new ResourceLocation(tag.getString(i)));
+            addAxolootl(new ResourceLocation(tag.getString(i)));
         }
     }
 
-    public void syncToClient(ServerPlayer serverPlayer) {
-        // send packet to client
-        AxNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> serverPlayer), new ClientBoundSyncAxolootlResearchCapabilityPacket(this));
-    }
-
     //// PROVIDER ////
 
     public static class Provider implements ICapabilitySerializable<ListTag> {
         private final AxolootlResearchCapability instance;
         private final LazyOptional<AxolootlResearchCapability> storage;
 
-        public Provider() {
-            instance = new AxolootlResearchCapability();
+        public Provider(final Player player) {
+            instance = new AxolootlResearchCapability(player);
             storage = LazyOptional.of(() -> instance);
         }
 
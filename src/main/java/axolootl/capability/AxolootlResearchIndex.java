@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.capability;
+
+import axolootl.data.axolootl_variant.AxolootlVariant;
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Assigns a bit to each registered axolootl variant so that research can be stored in a {@link BitSet}.
+ * Variants are sorted by ID, so the server and client create the same index from the same synced registry.
+ * An index is created for each axolootl variant registry instance, which changes when datapacks are synced.
+ */
+@Immutable
+public final class AxolootlResearchIndex {
+
+    public static final AxolootlResearchIndex EMPTY = new AxolootlResearchIndex(ImmutableList.of());
+
+    /** Map of axolootl variant registry to index, weak so that indices are released with their registry **/
+    private static final Map<Registry<AxolootlVariant>, AxolootlResearchIndex> INDICES = new WeakHashMap<>();
+
+    private final List<ResourceLocation> ids;
+    private final Object2IntMap<ResourceLocation> indices;
+    private final int fingerprint;
+
+    private AxolootlResearchIndex(final List<ResourceLocation> ids) {
+        this.ids = ids;
+        this.indices = new Object2IntOpenHashMap<>(ids.size());
+        this.indices.defaultReturnValue(-1);
+        for(int i = 0, n = ids.size(); i < n; i++) {
+            this.indices.put(ids.get(i), i);
+        }
+        this.fingerprint = ids.hashCode();
+    }
+
+    /**
+     * @param access the registry access
+     * @return the index for the axolootl variant registry, creating it if needed
+     */
+    public static AxolootlResearchIndex get(final RegistryAccess access) {
+        final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(access);
+        synchronized (INDICES) {
+            return INDICES.computeIfAbsent(registry, AxolootlResearchIndex::create);
+        }
+    }
+
+    private static AxolootlResearchIndex create(final Registry<AxolootlVariant> registry) {
+        final List<ResourceLocation> ids = new ArrayList<>(registry.keySet());
+        ids.sort(ResourceLocation::compareTo);
+        return new AxolootlResearchIndex(ImmutableList.copyOf(ids));
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param id the axolootl variant ID
+     * @return the bit index of the given ID, or -1 if it is not in the index
+     */
+    public int indexOf(final ResourceLocation id) {
+        return indices.getInt(id);
+    }
+
+    /**
+     * @param index the bit index
+     * @return the axolootl variant ID for the given bit index
+     */
+    public ResourceLocation getId(final int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * @param bits a bit set created from this index
+     * @param collection the collection to fill with the axolootl variant IDs of each set bit
+     * @return the collection
+     */
+    public Collection<ResourceLocation> getIds(final BitSet bits, final Collection<ResourceLocation> collection) {
+        for(int i = bits.nextSetBit(0); i >= 0 && i < ids.size(); i = bits.nextSetBit(i + 1)) {
+            collection.add(ids.get(i));
+        }
+        return collection;
+    }
+
+    //// GETTERS ////
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return a hash of the indexed IDs, used to verify that the server and client use the same index
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+}
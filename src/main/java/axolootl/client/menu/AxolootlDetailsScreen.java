@@ -350,7 +350,7 @@ public class AxolootlDetailsScreen extends Screen implements ScrollButton.IScrol
     public static boolean canOpenDetails(final Player player, final ResourceLocation id) {
         // validate variant exists and is valid
         final Optional<AxolootlVariant> oVariant = AxolootlVariant.getRegistry(player.level.registryAccess()).getOptional(id);
-        if(oVariant.isEmpty() || !AxRegistry.AxolootlVariantsReg.isValid(id)) {
+        if(oVariant.isEmpty() || !AxRegistry.AxolootlVariantsReg.isValid(player.level.registryAccess(), id)) {
             return false;
         }
         // validate player capability
@@ -8,6 +8,7 @@ package axolootl.client.menu;
 
 import axolootl.AxRegistry;
 import axolootl.Axolootl;
+import axolootl.capability.AxolootlResearchCapability;
 import axolootl.client.menu.widget.ScrollButton;
 import axolootl.data.axolootl_variant.AxolootlVariant;
 import axolootl.entity.AxolootlEntity;
@@ -32,11 +33,9 @@ import net.minecraft.world.item.ItemStack;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 public class AxolootlInspectorScreen extends AbstractCyclingScreen<AxolootlInspectorMenu> implements ScrollButton.IScrollListener {
 
@@ -81,12 +80,11 @@ public class AxolootlInspectorScreen extends AbstractCyclingScreen<AxolootlInspe
         this.variants.clear();
         final RegistryAccess access = getMenu().getInventory().player.level.registryAccess();
         // determine the variants to show
-        Set<ResourceLocation> tracked = new HashSet<>();
-        getMenu().getInventory().player.getCapability(Axolootl.AXOLOOTL_RESEARCH_CAPABILITY).ifPresent(c -> tracked.addAll(c.getAxolootls()));
+        final AxolootlResearchCapability tracked = getMenu().getInventory().player.getCapability(Axolootl.AXOLOOTL_RESEARCH_CAPABILITY).orElse(AxolootlResearchCapability.EMPTY);
         // resolve variants with cross reference to the tracked variants
         final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(access);
         for(Map.Entry<ResourceKey<AxolootlVariant>, AxolootlVariant> entry : registry.entrySet()) {
-            if(tracked.contains(entry.getKey().location())) {
+            if(tracked.containsAxolootl(entry.getKey().location())) {
                 this.variants.add(entry);
             }
         }
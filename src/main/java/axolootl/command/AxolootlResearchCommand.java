@@ -38,7 +38,7 @@ public class AxolootlResearchCommand {
     private static final DynamicCommandExceptionType INVALID_VARIANT = new DynamicCommandExceptionType(o -> Component.translatable("commands.axresearch.failure.invalid_variant", o));
 
     private static final SuggestionProvider<CommandSourceStack> SUGGEST_AXOLOOTL_VARIANT = (context, builder) -> {
-        Set<ResourceLocation> set = Sets.difference(AxolootlVariant.getRegistry(context.getSource().registryAccess()).keySet(), AxRegistry.AxolootlVariantsReg.getInvalidEntries());
+        Set<ResourceLocation> set = Sets.difference(AxolootlVariant.getRegistry(context.getSource().registryAccess()).keySet(), AxRegistry.AxolootlVariantsReg.getInvalidEntries(context.getSource().registryAccess()));
         return SharedSuggestionProvider.suggest(set.stream().map(ResourceLocation::toString), builder);
     };
 
@@ -71,7 +71,7 @@ public class AxolootlResearchCommand {
         if(oVariant.isEmpty()) {
             throw UNKNOWN_VARIANT.create(id);
         }
-        if(!AxRegistry.AxolootlVariantsReg.isValid(id)) {
+        if(!AxRegistry.AxolootlVariantsReg.isValid(context.registryAccess(), id)) {
             throw INVALID_VARIANT.create(id);
         }
         // add to the given players
@@ -91,12 +91,11 @@ public class AxolootlResearchCommand {
 
     private static int addAll(final CommandSourceStack context, final Collection<ServerPlayer> targets) {
         // add to the given players
-        final Set<ResourceLocation> ids = Sets.difference(AxolootlVariant.getRegistry(context.registryAccess()).keySet(), AxRegistry.AxolootlVariantsReg.getInvalidEntries());
+        final Set<ResourceLocation> ids = Sets.difference(AxolootlVariant.getRegistry(context.registryAccess()).keySet(), AxRegistry.AxolootlVariantsReg.getInvalidEntries(context.registryAccess()));
         // add to the given players
         for(ServerPlayer target : targets) {
             target.getCapability(Axolootl.AXOLOOTL_RESEARCH_CAPABILITY).ifPresent(c -> {
-                c.addAxolootls(ids);
-                c.syncToClient(target);
+                c.addAxolootls(target, ids);
             });
         }
         // send feedback
@@ -110,7 +109,7 @@ public class AxolootlResearchCommand {
 
     private static int remove(final CommandSourceStack context, final Collection<ServerPlayer> targets, final ResourceLocation id) throws CommandSyntaxException {
         // validate ID
-        if(!AxRegistry.AxolootlVariantsReg.isValid(id)) {
+        if(!AxRegistry.AxolootlVariantsReg.isValid(context.registryAccess(), id)) {
             throw INVALID_VARIANT.create(id);
         }
         final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(context.registryAccess());
@@ -91,10 +91,12 @@ public class AquariumModifier {
      * @param level the level
      * @param pos the block position
      * @return the first aquarium modifier suitable for the given position, if any
+     * @see AquariumModifierIndex
      */
     public static Optional<AquariumModifier> forBlock(final LevelAccessor level, final BlockPos pos) {
         final ServerLevel serverLevel = (ServerLevel) level;
-        for(AquariumModifier entry : getRegistry(level.registryAccess())) {
+        final BlockState blockState = level.getBlockState(pos);
+        for(AquariumModifier entry : AxRegistry.AquariumModifiersReg.getIndex(level.registryAccess()).getCandidates(blockState)) {
             if(entry.isApplicable(serverLevel, pos)) {
                 return Optional.of(entry);
             }
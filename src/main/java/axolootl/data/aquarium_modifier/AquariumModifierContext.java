@@ -26,6 +26,7 @@ public class AquariumModifierContext {
     private final Collection<IAxolootl> axolootls;
     private final Map<BlockPos, AquariumModifier> modifiers;
     private final Set<BlockPos> activeModifiers;
+    private final ModifierPositionIndex index;
 
     /**
      * @param level the level
@@ -38,12 +39,29 @@ public class AquariumModifierContext {
     public AquariumModifierContext(LevelAccessor level, BlockPos pos,
                                    TankMultiblock.Size tankSize, Collection<IAxolootl> axolootls,
                                    Map<BlockPos, AquariumModifier> modifiers, Set<BlockPos> activeModifiers) {
+        this(level, pos, tankSize, axolootls, modifiers, activeModifiers, new ModifierPositionIndex(level.registryAccess(), modifiers, activeModifiers));
+    }
+
+    /**
+     * @param level the level
+     * @param pos the block position of the current aquarium modifier
+     * @param tankSize the tank size
+     * @param axolootls a view of all tracked axolootls
+     * @param modifiers a view of all tracked aquarium modifiers, excluding the current one
+     * @param activeModifiers the set of block positions that contained active modifiers before the current evaluation
+     * @param index the modifier position index to share between all contexts in the current evaluation
+     */
+    public AquariumModifierContext(LevelAccessor level, BlockPos pos,
+                                   TankMultiblock.Size tankSize, Collection<IAxolootl> axolootls,
+                                   Map<BlockPos, AquariumModifier> modifiers, Set<BlockPos> activeModifiers,
+                                   ModifierPositionIndex index) {
         this.level = level;
         this.pos = pos;
         this.tankSize = tankSize;
         this.axolootls = axolootls;
         this.modifiers = modifiers;
         this.activeModifiers = activeModifiers;
+        this.index = index;
     }
 
     //// GETTERS ////
@@ -97,6 +115,13 @@ public class AquariumModifierContext {
         return modifiers;
     }
 
+    /**
+     * @return the index of aquarium modifiers by holder set and position
+     */
+    public ModifierPositionIndex getIndex() {
+        return index;
+    }
+
     /**
      * @return the block positions of modifiers that were active in the previous tick
      */
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.aquarium_modifier;
+
+import axolootl.AxRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mojang.serialization.JsonOps;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.blockpredicates.BlockPredicate;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maps blocks to the aquarium modifiers whose block predicates could match them.
+ * Modifiers with predicates that cannot be indexed are candidates for every block except air and water.
+ */
+@Immutable
+public final class AquariumModifierIndex {
+
+    public static final AquariumModifierIndex EMPTY = new AquariumModifierIndex(ImmutableMap.of(), ImmutableList.of());
+
+    private static final String MATCHING_BLOCKS = "minecraft:matching_blocks";
+    private static final String ALL_OF = "minecraft:all_of";
+    private static final String ANY_OF = "minecraft:any_of";
+    private static final String NOT = "minecraft:not";
+    private static final String TRUE = "minecraft:true";
+
+    /** The candidate modifiers for each indexed block, including unindexed modifiers, in registry order **/
+    private final Map<Block, List<AquariumModifier>> indexed;
+    /** The modifiers that could not be indexed, in registry order **/
+    private final List<AquariumModifier> unindexed;
+
+    private AquariumModifierIndex(Map<Block, List<AquariumModifier>> indexed, List<AquariumModifier> unindexed) {
+        this.indexed = indexed;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * @param registryAccess the registry access
+     * @return a new index of all registered aquarium modifiers
+     */
+    public static AquariumModifierIndex create(final RegistryAccess registryAccess) {
+        final RegistryOps<JsonElement> ops = RegistryOps.create(JsonOps.INSTANCE, registryAccess);
+        // determine the candidate blocks for each modifier, in registry order
+        final List<AquariumModifier> modifiers = new ArrayList<>();
+        final List<Optional<Set<Block>>> candidates = new ArrayList<>();
+        final Set<Block> blocks = new LinkedHashSet<>();
+        final ImmutableList.Builder<AquariumModifier> unindexed = ImmutableList.builder();
+        for(AquariumModifier entry : AquariumModifier.getRegistry(registryAccess)) {
+            final Optional<Set<Block>> oBlocks = BlockPredicate.CODEC.encodeStart(ops, entry.getBlockStatePredicate())
+                    .result()
+                    .flatMap(AquariumModifierIndex::readCandidates);
+            oBlocks.ifPresentOrElse(blocks::addAll, () -> unindexed.add(entry));
+            modifiers.add(entry);
+            candidates.add(oBlocks);
+        }
+        // build candidate lists for each block
+        final ImmutableMap.Builder<Block, List<AquariumModifier>> indexed = ImmutableMap.builder();
+        for(Block block : blocks) {
+            final ImmutableList.Builder<AquariumModifier> builder = ImmutableList.builder();
+            for(int i = 0, n = modifiers.size(); i < n; i++) {
+                final Optional<Set<Block>> oBlocks = candidates.get(i);
+                if(oBlocks.isEmpty() || oBlocks.get().contains(block)) {
+                    builder.add(modifiers.get(i));
+                }
+            }
+            indexed.put(block, builder.build());
+        }
+        return new AquariumModifierIndex(indexed.build(), unindexed.build());
+    }
+
+    /**
+     * @param blockState the block state
+     * @return the aquarium modifiers that might be applicable to the given block state, in registry order
+     */
+    public List<AquariumModifier> getCandidates(final BlockState blockState) {
+        final List<AquariumModifier> list = indexed.get(blockState.getBlock());
+        if(list != null) {
+            return list;
+        }
+        // air and water are never candidates for unindexed modifiers
+        if(blockState.isAir() || blockState.is(Blocks.WATER)) {
+            return ImmutableList.of();
+        }
+        return unindexed;
+    }
+
+    /**
+     * @return the number of modifiers that could not be indexed
+     */
+    public int getUnindexedCount() {
+        return unindexed.size();
+    }
+
+    //// HELPER METHODS ////
+
+    /**
+     * @param json the serialized block predicate
+     * @return the set of blocks that might pass the predicate, or empty if the predicate cannot be indexed
+     */
+    private static Optional<Set<Block>> readCandidates(final JsonElement json) {
+        if(!json.isJsonObject()) {
+            return Optional.empty();
+        }
+        final JsonObject object = json.getAsJsonObject();
+        final String type = GsonHelper.getAsString(object, "type", "");
+        // blocks with no offset
+        if(type.equals(MATCHING_BLOCKS) || type.equals(AxRegistry.BlockPredicateTypesReg.MATCHING_STATE.getId().toString())) {
+            if(object.has("offset") || !object.has("blocks")) {
+                return Optional.empty();
+            }
+            return readBlocks(object.get("blocks"));
+        }
+        // intersection of any indexed children
+        if(type.equals(ALL_OF)) {
+            Set<Block> set = null;
+            for(JsonElement child : GsonHelper.getAsJsonArray(object, "predicates", new JsonArray())) {
+                final Optional<Set<Block>> oBlocks = readCandidates(child);
+                if(oBlocks.isPresent()) {
+                    if(null == set) {
+                        set = new HashSet<>(oBlocks.get());
+                    } else {
+                        set.retainAll(oBlocks.get());
+                    }
+                }
+            }
+            return Optional.ofNullable(set);
+        }
+        // union of children, all of which must be indexed
+        if(type.equals(ANY_OF)) {
+            final Set<Block> set = new HashSet<>();
+            for(JsonElement child : GsonHelper.getAsJsonArray(object, "predicates", new JsonArray())) {
+                final Optional<Set<Block>> oBlocks = readCandidates(child);
+                if(oBlocks.isEmpty()) {
+                    return Optional.empty();
+                }
+                set.addAll(oBlocks.get());
+            }
+            return Optional.of(set);
+        }
+        // predicate that never passes
+        if(type.equals(NOT) && object.has("predicate") && object.get("predicate").isJsonObject()
+                && GsonHelper.getAsString(object.getAsJsonObject("predicate"), "type", "").equals(TRUE)) {
+            return Optional.of(Set.of());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param json the serialized block holder set, either a tag, a single ID, or a list of IDs
+     * @return the set of blocks in the holder set, or empty if the holder set could not be read
+     */
+    private static Optional<Set<Block>> readBlocks(final JsonElement json) {
+        final Set<Block> set = new HashSet<>();
+        // read tag or single element
+        if(json.isJsonPrimitive()) {
+            final String value = json.getAsString();
+            if(value.startsWith("#")) {
+                final ResourceLocation id = ResourceLocation.tryParse(value.substring(1));
+                if(null == id) {
+                    return Optional.empty();
+                }
+                ForgeRegistries.BLOCKS.tags().getTag(ForgeRegistries.BLOCKS.tags().createTagKey(id)).forEach(set::add);
+                return Optional.of(set);
+            }
+            return readBlock(value, set) ? Optional.of(set) : Optional.empty();
+        }
+        // read list of elements
+        if(json.isJsonArray()) {
+            for(JsonElement element : json.getAsJsonArray()) {
+                if(!element.isJsonPrimitive() || !readBlock(element.getAsString(), set)) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(set);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param value the block ID
+     * @param set the set to add the block to
+     * @return true if the block ID was valid
+     */
+    private static boolean readBlock(final String value, final Set<Block> set) {
+        final ResourceLocation id = ResourceLocation.tryParse(value);
+        if(null == id || !ForgeRegistries.BLOCKS.containsKey(id)) {
+            return false;
+        }
+        set.add(ForgeRegistries.BLOCKS.getValue(id));
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.aquarium_modifier;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.Vec3i;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Groups the modifiers of a single validation pass by holder set and chunk section
+ * so that count and distance conditions do not need to scan every modifier.
+ */
+public class ModifierPositionIndex {
+
+    private final RegistryAccess registryAccess;
+    private final Map<BlockPos, AquariumModifier> modifiers;
+    private final Set<BlockPos> activeModifiers;
+    /** The modifier positions grouped by modifier **/
+    private final Map<AquariumModifier, List<BlockPos>> byModifier = new IdentityHashMap<>();
+    /** The lazily created groups for each holder set that was queried during this pass **/
+    private final Map<HolderSet<AquariumModifier>, Group> groups = new IdentityHashMap<>();
+
+    /**
+     * @param registryAccess the registry access
+     * @param modifiers all tracked aquarium modifiers
+     * @param activeModifiers the set of block positions that contained active modifiers before the current pass
+     */
+    public ModifierPositionIndex(final RegistryAccess registryAccess, final Map<BlockPos, AquariumModifier> modifiers, final Set<BlockPos> activeModifiers) {
+        this.registryAccess = registryAccess;
+        this.modifiers = modifiers;
+        this.activeModifiers = activeModifiers;
+        for(Map.Entry<BlockPos, AquariumModifier> entry : modifiers.entrySet()) {
+            byModifier.computeIfAbsent(entry.getValue(), m -> new ArrayList<>()).add(entry.getKey());
+        }
+    }
+
+    /**
+     * @param holderSet the modifiers to count
+     * @param pos the block position to exclude
+     * @param requireActive true to only count modifiers that were active before the current pass
+     * @return the number of modifiers in the holder set, excluding the one at the given position
+     */
+    public int count(final HolderSet<AquariumModifier> holderSet, final BlockPos pos, final boolean requireActive) {
+        final Group group = getGroup(holderSet);
+        int count = requireActive ? group.activeCount : group.positions.size();
+        // exclude the given position
+        final AquariumModifier self = modifiers.get(pos);
+        if(self != null && group.modifiers.containsKey(self) && (!requireActive || activeModifiers.contains(pos))) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * @param holderSet the modifiers to compare
+     * @param pos the block position
+     * @return the number of modifiers in the holder set with a smaller block position than the given position
+     */
+    public int countBefore(final HolderSet<AquariumModifier> holderSet, final BlockPos pos) {
+        final List<BlockPos> sorted = getGroup(holderSet).sorted;
+        final int index = Collections.binarySearch(sorted, pos);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * @param holderSet the modifiers to search
+     * @param pos the block position to exclude
+     * @param origin the center of the search
+     * @param maxDistance the maximum manhattan distance to search, or -1 for no limit
+     * @param predicate a predicate to test modifiers against, receiving the modifier position and modifier
+     * @return true if any modifier in the holder set within the search range passes the given predicate
+     */
+    public boolean anyNear(final HolderSet<AquariumModifier> holderSet, final BlockPos pos, final BlockPos origin, final int maxDistance,
+                           final BiPredicate<BlockPos, AquariumModifier> predicate) {
+        final Group group = getGroup(holderSet);
+        if(group.positions.isEmpty()) {
+            return false;
+        }
+        // determine the range of chunk sections to search, accounting for multiblock modifiers
+        final int range = maxDistance < 0 ? -1 : maxDistance + group.maxDimension;
+        final int sectionRange = range < 0 ? -1 : SectionPos.blockToSectionCoord(range) + 1;
+        final long sectionCount = sectionRange < 0 ? Long.MAX_VALUE : (long) (sectionRange * 2 + 1) * (sectionRange * 2 + 1) * (sectionRange * 2 + 1);
+        // scan every position when the search range is larger than the group
+        if(sectionCount >= group.sections.size()) {
+            for(BlockPos p : group.positions) {
+                if(!p.equals(pos) && predicate.test(p, modifiers.get(p))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // scan nearby chunk sections
+        final int sx = SectionPos.blockToSectionCoord(origin.getX());
+        final int sy = SectionPos.blockToSectionCoord(origin.getY());
+        final int sz = SectionPos.blockToSectionCoord(origin.getZ());
+        for(int x = sx - sectionRange; x <= sx + sectionRange; x++) {
+            for(int y = sy - sectionRange; y <= sy + sectionRange; y++) {
+                for(int z = sz - sectionRange; z <= sz + sectionRange; z++) {
+                    final List<BlockPos> list = group.sections.get(SectionPos.asLong(x, y, z));
+                    if(null == list) continue;
+                    for(BlockPos p : list) {
+                        if(!p.equals(pos) && predicate.test(p, modifiers.get(p))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param holderSet a holder set
+     * @return the group of modifiers in the holder set, creating it if needed
+     */
+    private Group getGroup(final HolderSet<AquariumModifier> holderSet) {
+        return groups.computeIfAbsent(holderSet, this::createGroup);
+    }
+
+    private Group createGroup(final HolderSet<AquariumModifier> holderSet) {
+        final Group group = new Group();
+        for(Map.Entry<AquariumModifier, List<BlockPos>> entry : byModifier.entrySet()) {
+            if(!holderSet.contains(entry.getKey().getHolder(registryAccess))) {
+                continue;
+            }
+            group.modifiers.put(entry.getKey(), Boolean.TRUE);
+            final Vec3i dimensions = entry.getKey().getDimensions();
+            group.maxDimension = Math.max(group.maxDimension, Math.max(dimensions.getX(), Math.max(dimensions.getY(), dimensions.getZ())));
+            for(BlockPos p : entry.getValue()) {
+                group.positions.add(p);
+                group.sections.computeIfAbsent(SectionPos.asLong(SectionPos.blockToSectionCoord(p.getX()), SectionPos.blockToSectionCoord(p.getY()), SectionPos.blockToSectionCoord(p.getZ())), l -> new ArrayList<>()).add(p);
+                if(activeModifiers.contains(p)) {
+                    group.activeCount++;
+                }
+            }
+        }
+        group.sorted.addAll(group.positions);
+        Collections.sort(group.sorted);
+        return group;
+    }
+
+    private static class Group {
+        private final Map<AquariumModifier, Boolean> modifiers = new IdentityHashMap<>();
+        private final List<BlockPos> positions = new ArrayList<>();
+        private final List<BlockPos> sorted = new ArrayList<>();
+        private final Long2ObjectMap<List<BlockPos>> sections = new Long2ObjectOpenHashMap<>();
+        private int activeCount;
+        private int maxDimension;
+    }
+}
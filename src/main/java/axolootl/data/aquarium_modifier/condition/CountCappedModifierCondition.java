@@ -21,9 +21,6 @@ import net.minecraft.core.HolderSet;
 import net.minecraft.core.Registry;
 
 import javax.annotation.concurrent.Immutable;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -58,39 +55,14 @@ public class CountCappedModifierCondition extends CountModifierCondition {
     @Override
     public boolean test(AquariumModifierContext context) {
         final BlockPos pos = context.getPos();
-        final List<BlockPos> modifiers = new LinkedList<>();
         final Registry<AquariumModifier> registry = context.getRegistryAccess().registryOrThrow(AxRegistry.Keys.AQUARIUM_MODIFIERS);
         final HolderSet<AquariumModifier> holderSet = getModifiers().get(registry);
-        for(Map.Entry<BlockPos, AquariumModifier> entry : context.getModifiers().entrySet()) {
-            // skip this entry
-            if(entry.getKey().equals(pos)) continue;
-            // count matching modifiers
-            if(holderSet.contains(entry.getValue().getHolder(context.getRegistryAccess()))) {
-                insertSorted(modifiers, entry.getKey());
-            }
-        }
         // check if count is within range
-        if(modifiers.size() < getMaxCount()) {
+        if(context.getIndex().count(holderSet, pos, false) < getMaxCount()) {
             return true;
         }
         // check if blockpos is small enough
-        return sortedIndexOf(modifiers, pos) < getMaxCount();
-    }
-
-    private void insertSorted(final List<BlockPos> list, final BlockPos pos) {
-        list.add(sortedIndexOf(list, pos), pos);
-    }
-
-    private int sortedIndexOf(final List<BlockPos> list, final BlockPos pos) {
-        if(list.isEmpty()) {
-            return 0;
-        }
-        for(int i = 0, n = list.size(); i < n; i++) {
-            if(pos.compareTo(list.get(i)) < 0) {
-                return i;
-            }
-        }
-        return list.size();
+        return context.getIndex().countBefore(holderSet, pos) < getMaxCount();
     }
 
     @Override
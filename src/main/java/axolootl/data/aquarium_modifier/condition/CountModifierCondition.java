@@ -15,8 +15,6 @@ import com.google.common.collect.ImmutableList;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.advancements.critereon.MinMaxBounds;
-import net.minecraft.core.BlockPos;
-import net.minecraft.core.Holder;
 import net.minecraft.core.HolderSet;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -24,7 +22,6 @@ import net.minecraft.network.chat.Component;
 
 import javax.annotation.concurrent.Immutable;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Immutable
@@ -60,17 +57,10 @@ public class CountModifierCondition extends ModifierCondition {
 
     @Override
     public boolean test(AquariumModifierContext context) {
-        int count = 0;
         final Registry<AquariumModifier> registry = context.getRegistryAccess().registryOrThrow(AxRegistry.Keys.AQUARIUM_MODIFIERS);
         final HolderSet<AquariumModifier> holderSet = this.modifierId.get(registry);
-        for(Map.Entry<BlockPos, AquariumModifier> entry : context.getModifiers().entrySet()) {
-            // skip this entry
-            if(entry.getKey().equals(context.getPos())) continue;
-            // count matching modifiers
-            if(holderSet.contains(entry.getValue().getHolder(context.getRegistryAccess())) && (!isRequireActive() || context.isModifierActive(entry.getKey()))) {
-                count++;
-            }
-        }
+        // count matching modifiers, excluding this entry
+        final int count = context.getIndex().count(holderSet, context.getPos(), isRequireActive());
         return getCount().matches(count);
     }
 
@@ -26,7 +26,6 @@ import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
 import javax.annotation.concurrent.Immutable;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Immutable
@@ -65,18 +64,9 @@ public class DistanceModifierCondition extends ModifierCondition {
         final BlockPos pos = context.getPos().offset(offset);
         final Registry<AquariumModifier> registry = context.getRegistryAccess().registryOrThrow(AxRegistry.Keys.AQUARIUM_MODIFIERS);
         final HolderSet<AquariumModifier> holderSet = getModifier().get(registry);
-        // check distance to each matching modifier
-        for(Map.Entry<BlockPos, AquariumModifier> entry : context.getModifiers().entrySet()) {
-            // skip this entry
-            if(entry.getKey().equals(context.getPos())) continue;
-            // calculate distance for matching modifiers
-            if(holderSet.contains(entry.getValue().getHolder(context.getRegistryAccess()))) {
-                if(isWithinDistance(pos, entry.getKey(), entry.getValue())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // check distance to each nearby matching modifier, excluding this entry
+        final int maxDistance = Optional.ofNullable(distance.getMax()).orElse(-1);
+        return context.getIndex().anyNear(holderSet, context.getPos(), pos, maxDistance, (p, m) -> isWithinDistance(pos, p, m));
     }
 
     private boolean isWithinDistance(final BlockPos origin, final BlockPos pos, final AquariumModifier modifier) {
@@ -17,6 +17,7 @@ import axolootl.data.resource_generator.ResourceTypes;
 import axolootl.util.AxCodecUtils;
 import axolootl.util.DeferredHolderSet;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.core.Holder;
@@ -36,8 +37,11 @@ import net.minecraft.world.item.Rarity;
 import net.minecraft.world.level.ItemLike;
 import net.minecraftforge.registries.ForgeRegistries;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class AxolootlVariant {
 
@@ -111,7 +115,7 @@ public class AxolootlVariant {
     /**
      * Loads the axolootl variant registry.
      * If you are going to iterate the registry, make sure to check
-     * {@link axolootl.AxRegistry.AxolootlVariantsReg#isValid(ResourceLocation)} or
+     * {@link axolootl.AxRegistry.AxolootlVariantsReg#isValid(RegistryAccess, ResourceLocation)} or
      * {@link axolootl.AxRegistry.AxolootlVariantsReg#isValid(RegistryAccess, AxolootlVariant)}
      * @param access the registry access
      * @return the axolootl variant registry
@@ -207,19 +211,47 @@ public class AxolootlVariant {
      * @param item some item
      * @return the first food bonuses applicable for this item, if any
      * @see #getFoods()
+     * @see #getFoodBonusesMap()
      */
     public Optional<Bonuses> getFoodBonuses(final ItemLike item) {
-        // create holder for item
-        final Optional<Holder<Item>> holder = ForgeRegistries.ITEMS.getHolder(item.asItem());
-        if(holder.isPresent()) {
-            // find matching holder
-            for(BonusesProvider provider : getFoods()) {
-                if(provider.getFoods().get(Registry.ITEM).contains(holder.get())) {
-                    return Optional.of(provider.getBonuses());
+        return Optional.ofNullable(AxRegistry.AxolootlVariantsReg.getFoodBonuses(this).get(item.asItem()));
+    }
+
+    /**
+     * @param items some items
+     * @return true if at least one of the items has food bonuses
+     */
+    public boolean canEatAny(final Iterable<Item> items) {
+        final Map<Item, Bonuses> map = AxRegistry.AxolootlVariantsReg.getFoodBonuses(this);
+        if(map.isEmpty()) {
+            return false;
+        }
+        for(Item item : items) {
+            if(map.containsKey(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a map of each item to the first food bonuses that apply to it.
+     * Callers should use {@link AxRegistry.AxolootlVariantsReg#getFoodBonuses(AxolootlVariant)} to access the cached result.
+     * @return a new map of items to food bonuses
+     * @see #getFoods()
+     */
+    public Map<Item, Bonuses> getFoodBonusesMap() {
+        final ImmutableMap.Builder<Item, Bonuses> builder = ImmutableMap.builder();
+        final Set<Item> visited = new HashSet<>();
+        for(BonusesProvider provider : getFoods()) {
+            for(Holder<Item> holder : provider.getFoods().get(Registry.ITEM)) {
+                // only the first matching provider is used for each item
+                if(holder.isBound() && visited.add(holder.value())) {
+                    builder.put(holder.value(), provider.getBonuses());
                 }
             }
         }
-        return Optional.empty();
+        return builder.build();
     }
 
     public DeferredHolderSet<Item> getBreedFood() {
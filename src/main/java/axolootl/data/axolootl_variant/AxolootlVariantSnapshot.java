@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.axolootl_variant;
+
+import axolootl.data.resource_generator.ResourceGenerator;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The axolootl variants of a single registry, where each variant is identified by its dense registry ID.
+ * Validity and resource generators are stored in arrays so that they can be queried without any map or side lookups.
+ * @see axolootl.AxRegistry.AxolootlVariantsReg#getSnapshot(RegistryAccess)
+ */
+@Immutable
+public final class AxolootlVariantSnapshot {
+
+    private final Registry<AxolootlVariant> registry;
+    private final Object2IntMap<ResourceLocation> ids;
+    private final AxolootlVariant[] variants;
+    /** The registry IDs of variants that are enabled, do not modify **/
+    private final BitSet valid;
+    /** The resource generator of each valid variant, or null if the variant is invalid **/
+    private final ResourceGenerator[] generators;
+
+    private AxolootlVariantSnapshot(final Registry<AxolootlVariant> registry, final Object2IntMap<ResourceLocation> ids,
+                                    final AxolootlVariant[] variants, final BitSet valid, final ResourceGenerator[] generators) {
+        this.registry = registry;
+        this.ids = ids;
+        this.variants = variants;
+        this.valid = valid;
+        this.generators = generators;
+    }
+
+    /**
+     * @param access the registry access
+     * @param invalid the IDs of the invalid axolootl variants
+     * @param cyclic a map of resource generators to true if the generator is part of or refers to a reference cycle
+     * @return a new snapshot of the axolootl variant registry
+     */
+    public static AxolootlVariantSnapshot create(final RegistryAccess access, final Set<ResourceLocation> invalid, final Map<ResourceGenerator, Boolean> cyclic) {
+        final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(access);
+        // find the largest registry ID
+        int size = 0;
+        for(AxolootlVariant variant : registry) {
+            size = Math.max(size, registry.getId(variant) + 1);
+        }
+        // populate arrays
+        final Object2IntMap<ResourceLocation> ids = new Object2IntOpenHashMap<>(size);
+        ids.defaultReturnValue(-1);
+        final AxolootlVariant[] variants = new AxolootlVariant[size];
+        final BitSet valid = new BitSet(size);
+        final ResourceGenerator[] generators = new ResourceGenerator[size];
+        for(AxolootlVariant variant : registry) {
+            final int i = registry.getId(variant);
+            final ResourceLocation id = registry.getKey(variant);
+            ids.put(id, i);
+            variants[i] = variant;
+            if(invalid.contains(id)) {
+                continue;
+            }
+            valid.set(i);
+            final Holder<ResourceGenerator> holder = variant.getResourceGenerator();
+            if(holder.isBound() && !cyclic.getOrDefault(holder.value(), false)) {
+                generators[i] = holder.value();
+            }
+        }
+        return new AxolootlVariantSnapshot(registry, ids, variants, valid, generators);
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param id the axolootl variant ID
+     * @return the registry ID of the axolootl variant, or -1 if it is not registered
+     */
+    public int indexOf(final ResourceLocation id) {
+        return ids.getInt(id);
+    }
+
+    /**
+     * @param variant the axolootl variant
+     * @return the registry ID of the axolootl variant, or -1 if it is not registered
+     */
+    public int indexOf(final AxolootlVariant variant) {
+        final int i = registry.getId(variant);
+        return (i >= 0 && i < variants.length && variants[i] == variant) ? i : -1;
+    }
+
+    /**
+     * @param index the registry ID
+     * @return the axolootl variant with the given registry ID, or null if there is none
+     */
+    @Nullable
+    public AxolootlVariant get(final int index) {
+        return (index >= 0 && index < variants.length) ? variants[index] : null;
+    }
+
+    /**
+     * @param id the axolootl variant ID
+     * @param includeAll true to include disabled axolootl variants
+     * @return the axolootl variant with the given ID, if any
+     */
+    public Optional<AxolootlVariant> get(final ResourceLocation id, final boolean includeAll) {
+        final int i = indexOf(id);
+        if(i < 0 || (!includeAll && !valid.get(i))) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(variants[i]);
+    }
+
+    /**
+     * @param index the registry ID
+     * @return true if the axolootl variant with the given registry ID is enabled
+     */
+    public boolean isValid(final int index) {
+        return index >= 0 && valid.get(index);
+    }
+
+    /**
+     * @param id the axolootl variant ID
+     * @return true if the axolootl variant is registered and enabled
+     */
+    public boolean isValid(final ResourceLocation id) {
+        return isValid(indexOf(id));
+    }
+
+    /**
+     * @param variant the axolootl variant
+     * @return true if the axolootl variant is registered and enabled
+     */
+    public boolean isValid(final AxolootlVariant variant) {
+        return isValid(indexOf(variant));
+    }
+
+    /**
+     * @param index the registry ID
+     * @return the resource generator of the enabled axolootl variant with the given registry ID, if any
+     */
+    public Optional<ResourceGenerator> getResourceGenerator(final int index) {
+        return (index >= 0 && index < generators.length) ? Optional.ofNullable(generators[index]) : Optional.empty();
+    }
+
+    //// GETTERS ////
+
+    public Registry<AxolootlVariant> getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return the number of registry IDs, including any that are unused
+     */
+    public int size() {
+        return variants.length;
+    }
+}
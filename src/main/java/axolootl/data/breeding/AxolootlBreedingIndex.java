@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.breeding;
+
+import axolootl.AxRegistry;
+import axolootl.data.axolootl_variant.AxolootlVariant;
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.ResourceKey;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Maps unordered pairs of axolootl variants to their breeding recipe
+ * and tracks which variants have at least one breeding partner.
+ */
+@Immutable
+public final class AxolootlBreedingIndex {
+
+    public static final AxolootlBreedingIndex EMPTY = new AxolootlBreedingIndex(ImmutableMap.of(), new BitSet());
+
+    /** The breeding recipe for each pair of variants, where the first key is never greater than the second **/
+    private final Map<Key, AxolootlBreedingWrapper> recipes;
+    /** The variant registry IDs that have at least one breeding recipe with a non-empty result **/
+    private final BitSet partners;
+
+    private AxolootlBreedingIndex(Map<Key, AxolootlBreedingWrapper> recipes, BitSet partners) {
+        this.recipes = recipes;
+        this.partners = partners;
+    }
+
+    /**
+     * @param access the registry access
+     * @return a new index of all registered breeding recipes
+     */
+    public static AxolootlBreedingIndex create(final RegistryAccess access) {
+        return create(access, entry -> AxRegistry.AxolootlBreedingReg.getWrapper(access, entry));
+    }
+
+    /**
+     * @param access the registry access
+     * @param wrappers a function to load the breeding wrapper for each breeding recipe
+     * @return a new index of all breeding recipes in the registry
+     */
+    public static AxolootlBreedingIndex create(final RegistryAccess access, final Function<AxolootlBreeding, AxolootlBreedingWrapper> wrappers) {
+        final Registry<AxolootlVariant> variants = AxolootlVariant.getRegistry(access);
+        final Map<Key, AxolootlBreedingWrapper> recipes = new HashMap<>();
+        final BitSet partners = new BitSet(variants.size());
+        // iterate in the same order that recipes were previously searched
+        for(Map.Entry<ResourceKey<AxolootlBreeding>, AxolootlBreeding> e : AxolootlBreeding.getRegistry(access).entrySet()) {
+            final AxolootlBreeding entry = e.getValue();
+            // only the first matching recipe is used for each pair
+            final Key key = Key.of(entry.getFirst(), entry.getSecond());
+            if(recipes.containsKey(key)) {
+                continue;
+            }
+            final AxolootlBreedingWrapper wrapper = wrappers.apply(entry);
+            recipes.put(key, wrapper);
+            // mark both variants as having a partner when the recipe has results
+            if(!wrapper.getResult().unwrap().isEmpty()) {
+                variants.getOptional(entry.getFirst()).ifPresent(v -> partners.set(variants.getId(v)));
+                variants.getOptional(entry.getSecond()).ifPresent(v -> partners.set(variants.getId(v)));
+            }
+        }
+        return new AxolootlBreedingIndex(ImmutableMap.copyOf(recipes), partners);
+    }
+
+    /**
+     * @param access the registry access
+     * @param first the first variant
+     * @param second the second variant
+     * @return the breeding recipe for the given variants in any order, if any
+     */
+    public Optional<AxolootlBreedingWrapper> get(final RegistryAccess access, final AxolootlVariant first, final AxolootlVariant second) {
+        final Registry<AxolootlVariant> registry = AxolootlVariant.getRegistry(access);
+        final Optional<ResourceKey<AxolootlVariant>> oFirst = registry.getResourceKey(first);
+        final Optional<ResourceKey<AxolootlVariant>> oSecond = registry.getResourceKey(second);
+        if(oFirst.isEmpty() || oSecond.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(recipes.get(Key.of(oFirst.get(), oSecond.get())));
+    }
+
+    /**
+     * @param access the registry access
+     * @param variant the axolootl variant
+     * @return true if the variant has at least one breeding recipe with a non-empty result
+     */
+    public boolean hasAnyPartner(final RegistryAccess access, final AxolootlVariant variant) {
+        final int id = AxolootlVariant.getRegistry(access).getId(variant);
+        return id >= 0 && partners.get(id);
+    }
+
+    /**
+     * An unordered pair of axolootl variant keys
+     * @param first the variant key that is not greater than the second
+     * @param second the variant key that is not less than the first
+     */
+    private static record Key(ResourceKey<AxolootlVariant> first, ResourceKey<AxolootlVariant> second) {
+
+        private static Key of(final ResourceKey<AxolootlVariant> a, final ResourceKey<AxolootlVariant> b) {
+            if(a.location().compareTo(b.location()) <= 0) {
+                return new Key(a, b);
+            }
+            return new Key(b, a);
+        }
+    }
+}
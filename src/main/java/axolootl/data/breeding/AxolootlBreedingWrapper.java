@@ -9,11 +9,13 @@ package axolootl.data.breeding;
 import axolootl.AxRegistry;
 import axolootl.data.axolootl_variant.AxolootlVariant;
 import axolootl.data.breeding_modifier.AxolootlBreedingModifier;
+import axolootl.util.AliasSampler;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import net.minecraft.core.Holder;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.RandomSource;
 import net.minecraft.util.random.SimpleWeightedRandomList;
 import net.minecraft.util.random.WeightedEntry;
@@ -23,15 +25,26 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public class AxolootlBreedingWrapper {
 
     private final AxolootlBreeding breeding;
     private final SimpleWeightedRandomList<ResourceKey<AxolootlVariant>> result;
+    private final AliasSampler<ResourceKey<AxolootlVariant>> resultSampler;
 
     public AxolootlBreedingWrapper(final RegistryAccess access, AxolootlBreeding breeding, List<AxolootlBreedingModifier> modifiers) {
+        this(access, breeding, modifiers, id -> AxRegistry.AxolootlVariantsReg.isValid(access, id));
+    }
+
+    /**
+     * @param access the registry access
+     * @param breeding the breeding recipe
+     * @param modifiers the breeding modifiers that target the recipe
+     * @param isValidVariant a predicate for the axolootl variant IDs that can be bred
+     */
+    public AxolootlBreedingWrapper(final RegistryAccess access, AxolootlBreeding breeding, List<AxolootlBreedingModifier> modifiers, final Predicate<ResourceLocation> isValidVariant) {
         this.breeding = breeding;
         // initialize wrapped result
         final List<WeightedEntry.Wrapper<ResourceKey<AxolootlVariant>>> builder = new ArrayList<>(breeding.getResult().unwrap());
@@ -52,9 +65,10 @@ public class AxolootlBreedingWrapper {
             modifier.apply(builder, AxolootlBreedingModifier.Phase.POST);
         }
         // remove invalid results
-        builder.removeIf(wrapper -> !AxRegistry.AxolootlVariantsReg.isValid(wrapper.getData().location()));
+        builder.removeIf(wrapper -> !isValidVariant.test(wrapper.getData().location()));
         // build the list
         this.result = new SimpleWeightedRandomList<>(builder);
+        this.resultSampler = AliasSampler.of(builder);
     }
 
     /**
@@ -68,16 +82,11 @@ public class AxolootlBreedingWrapper {
             return Optional.empty();
         }
         // find first matching recipe
-        final Optional<AxolootlBreeding> match = AxolootlBreeding.getRegistry(level.registryAccess()).entrySet()
-                .stream()
-                .filter(e -> e.getValue().matches(level, first, second))
-                .findFirst()
-                .map(Map.Entry::getValue);
+        final Optional<AxolootlBreedingWrapper> match = AxRegistry.AxolootlBreedingReg.getIndex(level.registryAccess()).get(level.registryAccess(), first, second);
         if(match.isEmpty()) {
             return Optional.empty();
         }
-        // get or create wrapper
-        final AxolootlBreedingWrapper wrapper = AxRegistry.AxolootlBreedingReg.getWrapper(level.registryAccess(), match.get());
+        final AxolootlBreedingWrapper wrapper = match.get();
         // verify post-processed recipe results are not empty
         if(wrapper.getResult().unwrap().isEmpty()) {
             return Optional.empty();
@@ -101,11 +110,7 @@ public class AxolootlBreedingWrapper {
      * @return a random element from the result set
      */
     public Optional<ResourceKey<AxolootlVariant>> sampleResult(final RandomSource random) {
-        final Optional<WeightedEntry.Wrapper<ResourceKey<AxolootlVariant>>> oVariant = getResult().getRandom(random);
-        if(oVariant.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(oVariant.get().getData());
+        return resultSampler.sample(random);
     }
 
     //// GETTERS ////
@@ -50,6 +50,11 @@ public class AndResourceGenerator extends ResourceGenerator {
         return children;
     }
 
+    @Override
+    public List<Holder<ResourceGenerator>> getReferences() {
+        return getChildren();
+    }
+
     @Override
     public Set<ResourceType> getResourceTypes() {
         return this.resourceTypes.get();
@@ -63,6 +68,31 @@ public class AndResourceGenerator extends ResourceGenerator {
         return builder.build();
     }
 
+    @Override
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        // roll each list
+        final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        getChildren().forEach(entry -> builder.addAll(entry.value().getRandomEntries(count, entity, random)));
+        return builder.build();
+    }
+
+    @Override
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        // sample each list
+        final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        getChildren().forEach(entry -> builder.addAll(entry.value().sampleEntries(count, entity, random)));
+        return builder.build();
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        ResourceYield result = ResourceYield.EMPTY;
+        for(Holder<ResourceGenerator> entry : getChildren()) {
+            result = result.and(entry.value().getExpectedYield(entity));
+        }
+        return result;
+    }
+
     @Override
     public Codec<? extends ResourceGenerator> getCodec() {
         return AxRegistry.ResourceGeneratorsReg.AND.get();
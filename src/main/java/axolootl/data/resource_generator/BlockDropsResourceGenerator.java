@@ -43,6 +43,7 @@ public class BlockDropsResourceGenerator extends SimpleResourceGenerator {
 
     private final ItemStack tool;
     private final BlockStateProvider blockProvider;
+    private final LootTableCache lootTableCache = new LootTableCache();
 
     public BlockDropsResourceGenerator(ItemStack tool, BlockStateProvider blockProvider) {
         super(ResourceTypes.BLOCK);
@@ -72,7 +73,7 @@ public class BlockDropsResourceGenerator extends SimpleResourceGenerator {
         // load loot table
         final BlockState blockState = getBlockProvider().getState(random, entity.blockPosition());
         final ResourceLocation lootTableId = blockState.getBlock().getLootTable();
-        final LootTable lootTable = server.getLootTables().get(lootTableId);
+        final LootTable lootTable = lootTableCache.get(server, lootTableId);
         if (lootTable == LootTable.EMPTY) {
             Axolootl.LOGGER.warn("[ResourceGenerator#getRandomEntries] Failed to load loot table " + lootTableId);
             return ImmutableList.of();
@@ -34,6 +34,21 @@ public class EmptyResourceGenerator extends SimpleResourceGenerator {
         return ImmutableList.of();
     }
 
+    @Override
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, RandomSource random) {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getRandomEntries(count, entity, random);
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        return ResourceYield.EMPTY;
+    }
+
     @Override
     public Codec<? extends ResourceGenerator> getCodec() {
         return AxRegistry.ResourceGeneratorsReg.EMPTY.get();
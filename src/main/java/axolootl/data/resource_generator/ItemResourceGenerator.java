@@ -13,10 +13,12 @@ import com.mojang.datafixers.util.Either;
 import com.mojang.serialization.Codec;
 import net.minecraft.util.RandomSource;
 import net.minecraft.util.random.SimpleWeightedRandomList;
+import net.minecraft.util.random.WeightedEntry;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -53,6 +55,44 @@ public class ItemResourceGenerator extends SimpleResourceGenerator {
         return ImmutableList.of(sample.get().copy());
     }
 
+    @Override
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getRandomEntries(count, entity, random);
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        final List<ResourceYield> yields = new ArrayList<>(list.unwrap().size());
+        final List<Integer> weights = new ArrayList<>(list.unwrap().size());
+        for(WeightedEntry.Wrapper<ItemStack> entry : list.unwrap()) {
+            yields.add(ResourceYield.of(entry.getData()));
+            weights.add(entry.getWeight().asInt());
+        }
+        return ResourceYield.select(yields, weights);
+    }
+
+    @Override
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        // sample the number of times each item is selected
+        final List<WeightedEntry.Wrapper<ItemStack>> entries = list.unwrap();
+        final int[] weights = new int[entries.size()];
+        for(int i = 0; i < weights.length; i++) {
+            weights[i] = entries.get(i).getWeight().asInt();
+        }
+        final int[] counts = sampleMultinomial(count, weights, random);
+        // create item stacks
+        final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        for(int i = 0; i < counts.length; i++) {
+            final ItemStack sample = entries.get(i).getData();
+            if(counts[i] > 0 && !sample.isEmpty()) {
+                final ItemStack itemStack = sample.copy();
+                itemStack.setCount((int) Math.min(Integer.MAX_VALUE, (long) sample.getCount() * counts[i]));
+                builder.add(itemStack);
+            }
+        }
+        return builder.build();
+    }
+
     @Override
     public Codec<? extends ResourceGenerator> getCodec() {
         return AxRegistry.ResourceGeneratorsReg.ITEM.get();
@@ -19,6 +19,8 @@ import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.registries.tags.ITag;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -54,6 +56,47 @@ public class ItemTagResourceGenerator extends SimpleResourceGenerator {
         return builder.build();
     }
 
+    @Override
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        // validate server
+        if (null == entity.getServer()) {
+            return ImmutableList.of();
+        }
+        // load item tag
+        final ITag<Item> itag = ForgeRegistries.ITEMS.tags().getTag(this.getTag());
+        final List<Item> items = ImmutableList.copyOf(itag);
+        // sample the number of times each item is selected, where each item is equally likely
+        final int[] weights = new int[items.size()];
+        Arrays.fill(weights, 1);
+        final int[] counts = sampleMultinomial(count, weights, random);
+        // create item stacks
+        final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        for(int i = 0; i < counts.length; i++) {
+            if(counts[i] > 0) {
+                builder.add(new ItemStack(items.get(i), counts[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getRandomEntries(count, entity, random);
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        // each item in the tag is equally likely
+        final ITag<Item> itag = ForgeRegistries.ITEMS.tags().getTag(this.getTag());
+        final List<ResourceYield> yields = new ArrayList<>(itag.size());
+        final List<Integer> weights = new ArrayList<>(itag.size());
+        for(Item item : itag) {
+            yields.add(ResourceYield.of(item.getDefaultInstance()));
+            weights.add(1);
+        }
+        return ResourceYield.select(yields, weights);
+    }
+
     @Override
     public Codec<? extends ResourceGenerator> getCodec() {
         return AxRegistry.ResourceGeneratorsReg.TAG.get();
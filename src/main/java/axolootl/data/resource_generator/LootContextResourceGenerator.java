@@ -7,6 +7,7 @@
 package axolootl.data.resource_generator;
 
 import axolootl.Axolootl;
+import axolootl.util.AliasSampler;
 import axolootl.util.AxCodecUtils;
 import com.google.common.collect.ImmutableList;
 import com.mojang.datafixers.util.Either;
@@ -21,11 +22,15 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.level.storage.loot.LootContext;
 import net.minecraft.world.level.storage.loot.LootTable;
+import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 
 @Immutable
@@ -36,6 +41,11 @@ public abstract class LootContextResourceGenerator extends SimpleResourceGenerat
                     list -> list.unwrap().size() == 1 ? Either.left(list.unwrap().get(0).getData()) : Either.right(list));
 
     private final SimpleWeightedRandomList<LootContextResourceGenerator.Wrapper> list;
+    /** The most recent loot context for each entity, reused while the entity has not moved **/
+    private final Map<LivingEntity, LootContext> contextCache = new WeakHashMap<>();
+    /** The sampler for the loot table list, created the first time it is needed **/
+    @Nullable
+    private volatile AliasSampler<Wrapper> sampler;
 
     public LootContextResourceGenerator(ResourceType resourceType, SimpleWeightedRandomList<LootContextResourceGenerator.Wrapper> list) {
         super(resourceType);
@@ -46,6 +56,23 @@ public abstract class LootContextResourceGenerator extends SimpleResourceGenerat
         return list;
     }
 
+    /**
+     * @return the sampler for the loot table list, creating it if needed
+     */
+    public AliasSampler<Wrapper> getSampler() {
+        AliasSampler<Wrapper> result = this.sampler;
+        if(null == result) {
+            result = AliasSampler.of(list.unwrap());
+            this.sampler = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void compile() {
+        this.sampler = AliasSampler.of(list.unwrap());
+    }
+
     @Override
     public Collection<ItemStack> getRandomEntries(LivingEntity entity, RandomSource random) {
         // validate server
@@ -54,21 +81,40 @@ public abstract class LootContextResourceGenerator extends SimpleResourceGenerat
             return ImmutableList.of();
         }
         // load loot table
-        final Optional<Wrapper> oLootTableId = getList().getRandomValue(random);
+        final Optional<Wrapper> oLootTableId = getSampler().sample(random);
         if (oLootTableId.isEmpty()) {
             return ImmutableList.of();
         }
-        final LootTable lootTable = server.getLootTables().get(oLootTableId.get().getId());
+        final LootTable lootTable = oLootTableId.get().getLootTable(server);
         if (lootTable == LootTable.EMPTY) {
             Axolootl.LOGGER.warn("[ResourceGenerator#getRandomEntries] Failed to load loot table " + oLootTableId.get());
             return ImmutableList.of();
         }
         // create loot table context
-        final LootContext context = createContext(entity, random);
+        final LootContext context = getOrCreateContext(entity, random);
         // generate items
         return lootTable.getRandomItems(context);
     }
 
+    /**
+     * @param entity the entity
+     * @param random the random instance
+     * @return a cached loot context for the entity if it has not moved since it was created, otherwise a new loot context
+     * @see #createContext(LivingEntity, RandomSource)
+     */
+    protected LootContext getOrCreateContext(LivingEntity entity, RandomSource random) {
+        synchronized (contextCache) {
+            final LootContext cached = contextCache.get(entity);
+            if(cached != null && cached.getRandom() == random && cached.getLevel() == entity.level
+                    && cached.getParamOrNull(LootContextParams.ORIGIN) == entity.position()) {
+                return cached;
+            }
+            final LootContext context = createContext(entity, random);
+            contextCache.put(entity, context);
+            return context;
+        }
+    }
+
     /**
      * @param entity the entity
      * @param random the random instance
@@ -96,6 +142,7 @@ public abstract class LootContextResourceGenerator extends SimpleResourceGenerat
 
         private final ResourceLocation id;
         private final ItemStack display;
+        private final LootTableCache lootTableCache = new LootTableCache();
 
         public Wrapper(ResourceLocation id, ItemStack display) {
             this.id = id;
@@ -112,6 +159,14 @@ public abstract class LootContextResourceGenerator extends SimpleResourceGenerat
             return display;
         }
 
+        /**
+         * @param server the server
+         * @return the loot table for this wrapper, cached until loot tables are reloaded
+         */
+        public LootTable getLootTable(final MinecraftServer server) {
+            return lootTableCache.get(server, id);
+        }
+
         //// EQUALITY ////
 
         @Override
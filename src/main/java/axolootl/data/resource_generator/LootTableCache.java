@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.resource_generator;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.loot.LootTable;
+import net.minecraft.world.level.storage.loot.LootTables;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches resolved loot tables until the server loot tables are reloaded
+ */
+final class LootTableCache {
+
+    /** The loot tables that were used to resolve the cached values **/
+    private LootTables source;
+    private final Map<ResourceLocation, LootTable> cache = new HashMap<>();
+
+    /**
+     * @param server the server
+     * @param id the loot table ID
+     * @return the loot table with the given ID, or {@link LootTable#EMPTY} if it does not exist
+     */
+    synchronized LootTable get(final MinecraftServer server, final ResourceLocation id) {
+        final LootTables lootTables = server.getLootTables();
+        // clear cache when loot tables are reloaded
+        if(lootTables != source) {
+            cache.clear();
+            source = lootTables;
+        }
+        return cache.computeIfAbsent(id, lootTables::get);
+    }
+}
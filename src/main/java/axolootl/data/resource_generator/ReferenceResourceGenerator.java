@@ -35,11 +35,31 @@ public class ReferenceResourceGenerator extends SimpleResourceGenerator {
         return holder;
     }
 
+    @Override
+    public List<Holder<ResourceGenerator>> getReferences() {
+        return List.of(getHolder());
+    }
+
     @Override
     public Collection<ItemStack> getRandomEntries(LivingEntity entity, RandomSource random) {
         return getHolder().value().getRandomEntries(entity, random);
     }
 
+    @Override
+    public Collection<ItemStack> getRandomEntries(int count, LivingEntity entity, RandomSource random) {
+        return getHolder().value().getRandomEntries(count, entity, random);
+    }
+
+    @Override
+    public Collection<ItemStack> sampleEntries(int count, LivingEntity entity, RandomSource random) {
+        return getHolder().value().sampleEntries(count, entity, random);
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        return getHolder().value().getExpectedYield(entity);
+    }
+
     @Override
     public Set<ResourceType> getResourceTypes() {
         return getHolder().value().getResourceTypes();
@@ -9,6 +9,7 @@ package axolootl.data.resource_generator;
 import axolootl.AxRegistry;
 import axolootl.util.AxCodecUtils;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.mojang.datafixers.util.Either;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.Holder;
@@ -19,6 +20,7 @@ import net.minecraft.core.RegistryCodecs;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.RegistryFileCodec;
 import net.minecraft.util.ExtraCodecs;
+import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
 import net.minecraft.util.random.SimpleWeightedRandomList;
 import net.minecraft.util.random.WeightedEntry;
@@ -26,6 +28,7 @@ import net.minecraft.util.random.WeightedRandomList;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -52,6 +55,9 @@ public abstract class ResourceGenerator {
             .xmap(either -> either.map(SimpleWeightedRandomList::single, Function.identity()), ResourceGenerator::eitherSimpleList);
 
     private final Supplier<List<ResourceDescriptionGroup>> description;
+    /** The expected yield, calculated the first time it is needed **/
+    @Nullable
+    private volatile ResourceYield expectedYield;
 
     public ResourceGenerator() {
         this.description = Suppliers.memoize(this::createDescription);
@@ -86,6 +92,81 @@ public abstract class ResourceGenerator {
      */
     public abstract Collection<ItemStack> getRandomEntries(final LivingEntity entity, final RandomSource random);
 
+    /**
+     * Generates the items for several rolls at once. The default implementation rolls the generator
+     * once for each count, subclasses that can sample all rolls together should override this method.
+     * @param count the number of times to roll the generator
+     * @param entity the entity
+     * @param random the random instance
+     * @return a collection of generated items, may be empty, and item stacks may exceed their max stack size
+     */
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        if(count == 1) {
+            return getRandomEntries(entity, random);
+        }
+        final List<ItemStack> list = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            list.addAll(getRandomEntries(entity, random));
+        }
+        return list;
+    }
+
+    /**
+     * Generates the items for many rolls at once, such as to catch up on several generation cycles.
+     * The default implementation samples the expected yield, which is approximate, so subclasses that
+     * can roll all counts exactly and cheaply should override this method.
+     * @param count the number of times to roll the generator
+     * @param entity the entity
+     * @param random the random instance
+     * @return a collection of generated items, may be empty, and item stacks may exceed their max stack size
+     * @see ResourceYield#sample(int, RandomSource)
+     */
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getExpectedYield(entity).sample(count, random);
+    }
+
+    /**
+     * Gets or creates the expected yield of a single roll of this resource generator.
+     * The yield is calculated once for each generator instance, so it is recalculated when datapacks are reloaded.
+     * @param entity an entity to use when the yield is sampled, such as to create a loot context
+     * @return the mean and variance of each generated item
+     */
+    public ResourceYield getExpectedYield(final LivingEntity entity) {
+        ResourceYield result = this.expectedYield;
+        if(null == result) {
+            result = createExpectedYield(entity);
+            this.expectedYield = result;
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the expected yield by rolling the generator several times with a fixed seed.
+     * Subclasses that can calculate the yield exactly should override this method.
+     * @param entity the entity
+     * @return the mean and variance of each generated item
+     * @see ResourceYield#sample(int, Function)
+     */
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        return ResourceYield.sample(ResourceYield.SAMPLE_COUNT, random -> getRandomEntries(entity, random));
+    }
+
+    /**
+     * Gets the resource generators that this generator refers to, used to detect reference cycles
+     * @return the referenced resource generators, may be empty
+     */
+    public List<Holder<ResourceGenerator>> getReferences() {
+        return ImmutableList.of();
+    }
+
+    /**
+     * Prepares any data that is needed to generate resources, such as sampling tables. This is called when datapacks
+     * are loaded, after the generator tree is verified to have no reference cycles. Subclasses that override this method
+     * should also prepare the data when it is first needed, in case this method was not called.
+     */
+    public void compile() {
+    }
+
     /**
      * @return the codec for this resource generator, used in the dispatcher
      */
@@ -110,6 +191,99 @@ public abstract class ResourceGenerator {
                 .orElse(1).intValue();
     }
 
+    /**
+     * Distributes the given number of trials among the given weights, where each trial selects one weight
+     * @param trials the number of trials
+     * @param weights the weight of each outcome
+     * @param random the random instance
+     * @return the number of trials for each outcome, in the same order as the weights
+     */
+    public static int[] sampleMultinomial(final int trials, final int[] weights, final RandomSource random) {
+        final int[] counts = new int[weights.length];
+        long remainingWeight = 0;
+        for(int weight : weights) {
+            remainingWeight += Math.max(0, weight);
+        }
+        int remaining = trials;
+        // sample each outcome from a binomial distribution conditioned on the previous outcomes
+        for(int i = 0; i < weights.length && remaining > 0 && remainingWeight > 0; i++) {
+            final int weight = Math.max(0, weights[i]);
+            final int count = (weight >= remainingWeight) ? remaining : sampleBinomial(remaining, (double) weight / remainingWeight, random);
+            counts[i] = count;
+            remaining -= count;
+            remainingWeight -= weight;
+        }
+        return counts;
+    }
+
+    /**
+     * Distributes the given number of trials among the given weights, where each trial selects one weight
+     * @param trials the number of trials
+     * @param weights the weight of each outcome, which do not need to be integers
+     * @param random the random instance
+     * @return the number of trials for each outcome, in the same order as the weights
+     * @see #sampleMultinomial(int, int[], RandomSource)
+     */
+    public static int[] sampleMultinomial(final int trials, final double[] weights, final RandomSource random) {
+        final int[] counts = new int[weights.length];
+        double remainingWeight = 0;
+        int last = -1;
+        for(int i = 0; i < weights.length; i++) {
+            if(weights[i] > 0) {
+                remainingWeight += weights[i];
+                last = i;
+            }
+        }
+        int remaining = trials;
+        // sample each outcome from a binomial distribution conditioned on the previous outcomes
+        for(int i = 0; i <= last && remaining > 0; i++) {
+            final double weight = Math.max(0, weights[i]);
+            // assign the remaining trials to the last outcome to avoid rounding error
+            final int count = (i == last) ? remaining : sampleBinomial(remaining, weight / remainingWeight, random);
+            counts[i] = count;
+            remaining -= count;
+            remainingWeight -= weight;
+        }
+        return counts;
+    }
+
+    /**
+     * Samples the number of successes in the given number of trials. Uses the waiting time method when few
+     * successes are expected and a normal approximation otherwise, so that the cost does not grow with the trials.
+     * @param trials the number of trials
+     * @param p the probability of success for each trial
+     * @param random the random instance
+     * @return the number of successes
+     */
+    public static int sampleBinomial(final int trials, final double p, final RandomSource random) {
+        if(trials <= 0 || !(p > 0)) {
+            return 0;
+        }
+        if(p >= 1) {
+            return trials;
+        }
+        // sample failures instead of successes when successes are likely
+        if(p > 0.5D) {
+            return trials - sampleBinomial(trials, 1.0D - p, random);
+        }
+        final double mean = trials * p;
+        if(mean < 16) {
+            // count geometric waiting times between successes
+            final double logQ = Math.log(1.0D - p);
+            int successes = 0;
+            double position = 0;
+            while(true) {
+                position += Math.floor(Math.log(1.0D - random.nextDouble()) / logQ) + 1;
+                if(position > trials) {
+                    return successes;
+                }
+                successes++;
+            }
+        }
+        final double deviation = Math.sqrt(mean * (1.0D - p));
+        return (int) Mth.clamp(Math.round(mean + deviation * random.nextGaussian()), 0, trials);
+    }
+
     /**
      * @param itemStack an item stack
      * @return the item display name or an indicator that the stack is empty
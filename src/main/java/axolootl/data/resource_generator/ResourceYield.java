@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.data.resource_generator;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.RandomSource;
+import net.minecraft.util.valueproviders.ConstantInt;
+import net.minecraft.util.valueproviders.IntProvider;
+import net.minecraft.util.valueproviders.UniformInt;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The expected number of each item generated by a single roll of a resource generator,
+ * described by the mean and variance of the count of each item.
+ */
+@Immutable
+public final class ResourceYield {
+
+    public static final ResourceYield EMPTY = new ResourceYield(new LinkedHashMap<>());
+
+    /** The number of times to roll a generator when the yield cannot be calculated exactly, enough to include rare drops **/
+    public static final int SAMPLE_COUNT = 1024;
+    /** The mean count above which the normal approximation is used instead of the binomial distribution **/
+    private static final double NORMAL_THRESHOLD = 16.0D;
+    /** The seed used to sample generators, so that the sampled yield is the same each time **/
+    public static final long SAMPLE_SEED = 0x6178L;
+
+    private final Map<Key, Entry> entries;
+    private final List<Entry> entryList;
+
+    private ResourceYield(final Map<Key, Entry> entries) {
+        this.entries = entries;
+        this.entryList = ImmutableList.copyOf(entries.values());
+    }
+
+    //// FACTORY METHODS ////
+
+    /**
+     * @param itemStack an item stack that is always generated
+     * @return the yield of a generator that always generates the given item stack
+     */
+    public static ResourceYield of(final ItemStack itemStack) {
+        if(itemStack.isEmpty()) {
+            return EMPTY;
+        }
+        final Map<Key, Entry> map = new LinkedHashMap<>();
+        map.put(Key.of(itemStack), new Entry(itemStack, itemStack.getCount(), 0));
+        return new ResourceYield(map);
+    }
+
+    /**
+     * Creates the yield of a generator that selects one of the given yields
+     * @param yields the yields to select from
+     * @param weights the weight of each yield
+     * @return the combined yield
+     */
+    public static ResourceYield select(final List<ResourceYield> yields, final List<Integer> weights) {
+        double totalWeight = 0;
+        for(int weight : weights) {
+            totalWeight += weight;
+        }
+        if(yields.isEmpty() || !(totalWeight > 0)) {
+            return EMPTY;
+        }
+        // sum the mean and second moment of each item, weighted by probability
+        final Map<Key, double[]> moments = new LinkedHashMap<>();
+        final Map<Key, ItemStack> items = new LinkedHashMap<>();
+        for(int i = 0, n = yields.size(); i < n; i++) {
+            final double p = weights.get(i) / totalWeight;
+            for(Map.Entry<Key, Entry> entry : yields.get(i).entries.entrySet()) {
+                final double mean = entry.getValue().getMean();
+                final double[] m = moments.computeIfAbsent(entry.getKey(), k -> new double[2]);
+                m[0] += p * mean;
+                m[1] += p * (entry.getValue().getVariance() + mean * mean);
+                items.putIfAbsent(entry.getKey(), entry.getValue().getItem());
+            }
+        }
+        // convert moments to mean and variance
+        final Map<Key, Entry> map = new LinkedHashMap<>();
+        for(Map.Entry<Key, double[]> entry : moments.entrySet()) {
+            final double mean = entry.getValue()[0];
+            map.put(entry.getKey(), new Entry(items.get(entry.getKey()), mean, Math.max(0, entry.getValue()[1] - mean * mean)));
+        }
+        return new ResourceYield(map);
+    }
+
+    /**
+     * Estimates the yield of a generator by rolling it several times
+     * @param samples the number of times to roll the generator
+     * @param generator a function to roll the generator using the given random source
+     * @return the sampled yield
+     */
+    public static ResourceYield sample(final int samples, final Function<RandomSource, Collection<ItemStack>> generator) {
+        final RandomSource random = RandomSource.create(SAMPLE_SEED);
+        final Map<Key, double[]> sums = new LinkedHashMap<>();
+        final Map<Key, ItemStack> items = new LinkedHashMap<>();
+        final Map<Key, Integer> counts = new LinkedHashMap<>();
+        for(int i = 0; i < samples; i++) {
+            // count the items in this sample
+            counts.clear();
+            for(ItemStack itemStack : generator.apply(random)) {
+                if(itemStack.isEmpty()) continue;
+                final Key key = Key.of(itemStack);
+                counts.merge(key, itemStack.getCount(), Integer::sum);
+                items.putIfAbsent(key, itemStack);
+            }
+            // add the counts and squared counts
+            for(Map.Entry<Key, Integer> entry : counts.entrySet()) {
+                final double[] s = sums.computeIfAbsent(entry.getKey(), k -> new double[2]);
+                s[0] += entry.getValue();
+                s[1] += (double) entry.getValue() * entry.getValue();
+            }
+        }
+        // convert sums to mean and variance
+        final Map<Key, Entry> map = new LinkedHashMap<>();
+        for(Map.Entry<Key, double[]> entry : sums.entrySet()) {
+            final double mean = entry.getValue()[0] / samples;
+            final double variance = Math.max(0, entry.getValue()[1] / samples - mean * mean);
+            map.put(entry.getKey(), new Entry(items.get(entry.getKey()), mean, variance));
+        }
+        return new ResourceYield(map);
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param other another yield that is rolled independently of this one
+     * @return the yield of rolling both this and the other generator
+     */
+    public ResourceYield and(final ResourceYield other) {
+        if(other.isEmpty()) {
+            return this;
+        }
+        if(this.isEmpty()) {
+            return other;
+        }
+        final Map<Key, Entry> map = new LinkedHashMap<>(this.entries);
+        for(Map.Entry<Key, Entry> entry : other.entries.entrySet()) {
+            map.merge(entry.getKey(), entry.getValue(), (a, b) -> new Entry(a.getItem(), a.getMean() + b.getMean(), a.getVariance() + b.getVariance()));
+        }
+        return new ResourceYield(map);
+    }
+
+    /**
+     * @param rolls the number of times to roll the generator
+     * @return the yield of rolling this generator a random number of times
+     */
+    public ResourceYield repeat(final IntProvider rolls) {
+        // calculate the mean and variance of the number of rolls
+        final double rollMean;
+        final double rollVariance;
+        if(rolls instanceof ConstantInt constant) {
+            rollMean = constant.getValue();
+            rollVariance = 0;
+        } else if(rolls instanceof UniformInt) {
+            final double range = rolls.getMaxValue() - rolls.getMinValue() + 1;
+            rollMean = (rolls.getMinValue() + rolls.getMaxValue()) / 2.0D;
+            rollVariance = (range * range - 1) / 12.0D;
+        } else {
+            final RandomSource random = RandomSource.create(SAMPLE_SEED);
+            double sum = 0;
+            double sumSquared = 0;
+            for(int i = 0; i < SAMPLE_COUNT; i++) {
+                final int sample = rolls.sample(random);
+                sum += sample;
+                sumSquared += (double) sample * sample;
+            }
+            rollMean = sum / SAMPLE_COUNT;
+            rollVariance = Math.max(0, sumSquared / SAMPLE_COUNT - rollMean * rollMean);
+        }
+        // the sum of a random number of independent rolls
+        final Map<Key, Entry> map = new LinkedHashMap<>();
+        for(Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            final double mean = entry.getValue().getMean();
+            map.put(entry.getKey(), new Entry(entry.getValue().getItem(), rollMean * mean,
+                    rollMean * entry.getValue().getVariance() + rollVariance * mean * mean));
+        }
+        return new ResourceYield(map);
+    }
+
+    /**
+     * Approximates the items generated by rolling the generator many times. Items with a small mean count use a
+     * binomial distribution, so rare items are not rounded away, and other items use a normal distribution.
+     * @param cycles the number of times the generator is rolled
+     * @param random the random source
+     * @return the generated item stacks, which may exceed their max stack size
+     */
+    public List<ItemStack> sample(final int cycles, final RandomSource random) {
+        final List<ItemStack> list = new ArrayList<>(entryList.size());
+        for(Entry entry : entryList) {
+            final double mean = entry.getMean() * cycles;
+            final long count;
+            if(mean < NORMAL_THRESHOLD) {
+                // split each roll into trials of at most one item so that the mean is exact
+                final int perRoll = Math.max(1, (int) Math.ceil(entry.getMean()));
+                final int trials = (int) Math.min(Integer.MAX_VALUE, (long) cycles * perRoll);
+                count = ResourceGenerator.sampleBinomial(trials, entry.getMean() / perRoll, random);
+            } else {
+                final double deviation = Math.sqrt(entry.getVariance() * cycles);
+                count = Math.round(mean + deviation * random.nextGaussian());
+            }
+            if(count > 0) {
+                final ItemStack itemStack = entry.getItem().copy();
+                itemStack.setCount((int) Math.min(Integer.MAX_VALUE, count));
+                list.add(itemStack);
+            }
+        }
+        return list;
+    }
+
+    //// GETTERS ////
+
+    /**
+     * @return true if no items are generated
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return the mean and variance of each generated item
+     */
+    public List<Entry> getEntries() {
+        return entryList;
+    }
+
+    /**
+     * @param item an item
+     * @return the mean count of the given item, including all item stacks with different tags
+     */
+    public double getMean(final Item item) {
+        double mean = 0;
+        for(Entry entry : entryList) {
+            if(entry.getItem().is(item)) {
+                mean += entry.getMean();
+            }
+        }
+        return mean;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceYield: " + entryList;
+    }
+
+    //// HELPER CLASSES ////
+
+    @Immutable
+    public static final class Entry {
+        private final ItemStack item;
+        private final double mean;
+        private final double variance;
+
+        private Entry(final ItemStack item, final double mean, final double variance) {
+            this.item = item.copy();
+            this.item.setCount(1);
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        /**
+         * @return a single item with any tags, do not modify
+         */
+        public ItemStack getItem() {
+            return item;
+        }
+
+        /**
+         * @return the mean count of the item
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * @return the variance of the count of the item
+         */
+        public double getVariance() {
+            return variance;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + item.getItem() + ", mean=" + mean + ", variance=" + variance + "}";
+        }
+    }
+
+    private static record Key(Item item, @Nullable CompoundTag tag) {
+        private static Key of(final ItemStack itemStack) {
+            return new Key(itemStack.getItem(), itemStack.getTag() != null ? itemStack.getTag().copy() : null);
+        }
+    }
+}
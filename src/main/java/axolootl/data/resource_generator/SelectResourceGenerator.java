@@ -7,11 +7,14 @@
 package axolootl.data.resource_generator;
 
 import axolootl.AxRegistry;
+import axolootl.util.AliasSampler;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
 import net.minecraft.core.Holder;
 import net.minecraft.util.RandomSource;
 import net.minecraft.util.random.SimpleWeightedRandomList;
@@ -21,8 +24,12 @@ import net.minecraft.util.valueproviders.IntProvider;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +46,9 @@ public class SelectResourceGenerator extends ResourceGenerator {
     private final SimpleWeightedRandomList<Holder<ResourceGenerator>> children;
     private final IntProvider rolls;
     private final Supplier<Set<ResourceType>> resourceTypes;
+    /** The generator tree flattened into a single table of leaf generators, created the first time it is needed **/
+    @Nullable
+    private volatile AliasSampler<ResourceGenerator> sampler;
 
     public SelectResourceGenerator(final SimpleWeightedRandomList<Holder<ResourceGenerator>> list, final IntProvider rolls) {
         super();
@@ -62,6 +72,73 @@ public class SelectResourceGenerator extends ResourceGenerator {
         return rolls;
     }
 
+    @Override
+    public List<Holder<ResourceGenerator>> getReferences() {
+        return getChildren().unwrap().stream().map(WeightedEntry.Wrapper::getData).toList();
+    }
+
+    /**
+     * @return the flattened sampler, creating it if needed
+     * @see #compile()
+     */
+    public AliasSampler<ResourceGenerator> getSampler() {
+        AliasSampler<ResourceGenerator> result = this.sampler;
+        if(null == result) {
+            compile();
+            result = this.sampler;
+        }
+        return result;
+    }
+
+    /**
+     * Flattens the generator tree into a single sampler. References are resolved and nested select generators
+     * that roll exactly once are merged into this one, so each roll selects a leaf generator in constant time.
+     * Any other generator, such as a loot table, is kept as a leaf.
+     */
+    @Override
+    public void compile() {
+        final List<ResourceGenerator> leaves = new ArrayList<>();
+        final DoubleList weights = new DoubleArrayList();
+        final Set<ResourceGenerator> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        path.add(this);
+        flatten(this, 1.0D, leaves, weights, path);
+        this.sampler = AliasSampler.of(leaves, weights.toDoubleArray());
+    }
+
+    /**
+     * @param select the select generator to flatten
+     * @param scale the probability of selecting the given generator from the root generator
+     * @param leaves the list of leaf generators to fill
+     * @param weights the list of leaf generator weights to fill
+     * @param path the generators that are currently being flattened, used to skip reference cycles
+     */
+    private static void flatten(final SelectResourceGenerator select, final double scale, final List<ResourceGenerator> leaves,
+                                final DoubleList weights, final Set<ResourceGenerator> path) {
+        final double totalWeight = calculateTotalWeight(select.getChildren());
+        for(WeightedEntry.Wrapper<Holder<ResourceGenerator>> entry : select.getChildren().unwrap()) {
+            final double weight = scale * entry.getWeight().asInt() / totalWeight;
+            // resolve references
+            ResourceGenerator child = entry.getData().value();
+            final Set<ResourceGenerator> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            while(child instanceof ReferenceResourceGenerator reference && visited.add(child)) {
+                child = reference.getHolder().value();
+            }
+            // skip reference cycles, which are reported when datapacks are loaded
+            if(child instanceof ReferenceResourceGenerator || path.contains(child)) {
+                continue;
+            }
+            // merge nested select generators that roll exactly once
+            if(child instanceof SelectResourceGenerator nested && nested.getRolls() instanceof ConstantInt constant && constant.getValue() == 1) {
+                path.add(nested);
+                flatten(nested, weight, leaves, weights, path);
+                path.remove(nested);
+                continue;
+            }
+            leaves.add(child);
+            weights.add(weight);
+        }
+    }
+
     @Override
     public Set<ResourceType> getResourceTypes() {
         return this.resourceTypes.get();
@@ -71,14 +148,75 @@ public class SelectResourceGenerator extends ResourceGenerator {
     public Collection<ItemStack> getRandomEntries(final LivingEntity entity, RandomSource random) {
         // roll each list
         final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        final AliasSampler<ResourceGenerator> sampler = getSampler();
         for(int i = 0, n = getRolls().sample(random); i < n; i++) {
-            final Optional<WeightedEntry.Wrapper<Holder<ResourceGenerator>>> oGenerator = children.getRandom(random);
+            final Optional<ResourceGenerator> oGenerator = sampler.sample(random);
             if (oGenerator.isEmpty()) continue;
-            builder.addAll(oGenerator.get().getData().value().getRandomEntries(entity, random));
+            builder.addAll(oGenerator.get().getRandomEntries(entity, random));
         }
         return builder.build();
     }
 
+    @Override
+    public Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getRandomEntries(count, entity, random, false);
+    }
+
+    /**
+     * Distributes the rolls to each leaf generator, so that the outcomes of each roll remain exclusive,
+     * and only the leaf generators that cannot roll exactly are approximated
+     */
+    @Override
+    public Collection<ItemStack> sampleEntries(final int count, final LivingEntity entity, final RandomSource random) {
+        return getRandomEntries(count, entity, random, true);
+    }
+
+    /**
+     * @param count the number of times to roll the generator
+     * @param entity the entity
+     * @param random the random instance
+     * @param sample true to use {@link #sampleEntries(int, LivingEntity, RandomSource)} for each leaf generator
+     * @return a collection of generated items, may be empty, and item stacks may exceed their max stack size
+     */
+    private Collection<ItemStack> getRandomEntries(final int count, final LivingEntity entity, final RandomSource random, final boolean sample) {
+        // determine total number of rolls
+        long rolls = 0;
+        if(getRolls() instanceof ConstantInt constant) {
+            rolls = (long) constant.getValue() * count;
+        } else {
+            for(int i = 0; i < count; i++) {
+                rolls += getRolls().sample(random);
+            }
+        }
+        // sample the number of times each leaf generator is selected
+        final AliasSampler<ResourceGenerator> sampler = getSampler();
+        final double[] weights = new double[sampler.size()];
+        for(int i = 0; i < weights.length; i++) {
+            weights[i] = sampler.getWeight(i);
+        }
+        final int[] counts = sampleMultinomial((int) Math.min(Integer.MAX_VALUE, rolls), weights, random);
+        // roll each selected leaf generator
+        final ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+        for(int i = 0; i < counts.length; i++) {
+            if(counts[i] > 0) {
+                final ResourceGenerator leaf = sampler.getValues().get(i);
+                builder.addAll(sample ? leaf.sampleEntries(counts[i], entity, random) : leaf.getRandomEntries(counts[i], entity, random));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected ResourceYield createExpectedYield(final LivingEntity entity) {
+        final List<ResourceYield> yields = new ArrayList<>(children.unwrap().size());
+        final List<Integer> weights = new ArrayList<>(children.unwrap().size());
+        for(WeightedEntry.Wrapper<Holder<ResourceGenerator>> child : children.unwrap()) {
+            yields.add(child.getData().value().getExpectedYield(entity));
+            weights.add(child.getWeight().asInt());
+        }
+        return ResourceYield.select(yields, weights).repeat(getRolls());
+    }
+
     @Override
     public Codec<? extends ResourceGenerator> getCodec() {
         return AxRegistry.ResourceGeneratorsReg.SELECT.get();
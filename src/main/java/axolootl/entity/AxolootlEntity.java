@@ -324,16 +324,35 @@ public class AxolootlEntity extends Axolotl implements IAnimatable, IAxolootl, I
 
     @Override
     public void setController(Level level, BlockPos pos, ControllerBlockEntity blockEntity) {
+        if(this.controller != null && this.controller != blockEntity) {
+            this.controller.unregisterAxolootl(this);
+        }
         this.controllerPos = pos;
         this.controller = blockEntity;
+        if(!level.isClientSide()) {
+            blockEntity.registerAxolootl(this);
+        }
     }
 
     @Override
     public void clearController() {
+        if(this.controller != null) {
+            this.controller.unregisterAxolootl(this);
+        }
         this.controllerPos = null;
         this.controller = null;
     }
 
+    @Override
+    public void onRemovedFromWorld() {
+        super.onRemovedFromWorld();
+        // release the direct reference but keep the controller position for when the entity is loaded again
+        if(this.controller != null) {
+            this.controller.unregisterAxolootl(this);
+            this.controller = null;
+        }
+    }
+
     @Override
     public Optional<ControllerBlockEntity> getController() {
         // lazy load controller from position
@@ -476,15 +495,20 @@ public class AxolootlEntity extends Axolotl implements IAnimatable, IAxolootl, I
             return;
         }
         if(null == bonuses) {
+            // clear bonuses
+            final boolean changed = this.bonuses != Bonuses.EMPTY;
             this.bonuses = Bonuses.EMPTY;
             this.bonusDuration = 0;
             this.getEntityData().set(DATA_ACTIVE_BONUS, false);
+            if(changed) {
+                this.getController().ifPresent(c -> c.onAxolootlBonusesChanged(this));
+            }
             return;
         }
         this.bonuses = bonuses;
         this.bonusDuration = bonuses.getDuration();
         this.getEntityData().set(DATA_ACTIVE_BONUS, true);
-        this.getController().ifPresent(c -> c.forceCalculateBonuses());
+        this.getController().ifPresent(c -> c.onAxolootlBonusesChanged(this));
     }
 
     public Bonuses getBonuses() {
@@ -127,12 +127,8 @@ public interface IAxolootl {
         if(oId.isEmpty()) {
             return Optional.empty();
         }
-        // validate variant ID
-        if(!includeAll && !AxRegistry.AxolootlVariantsReg.isValid(oId.get())) {
-            return Optional.empty();
-        }
-        // all checks passed
-        return AxolootlVariant.getRegistry(registryAccess).getOptional(oId.get());
+        // load and validate variant
+        return AxRegistry.AxolootlVariantsReg.getSnapshot(registryAccess).get(oId.get(), includeAll);
     }
 
     //// NBT ////
@@ -57,10 +57,10 @@ public class JeiAddon implements IModPlugin {
         // collect non-empty breeding wrappers
         for(AxolootlBreeding entry : registry) {
             // verify parents
-            if(!AxRegistry.AxolootlVariantsReg.isValid(entry.getFirst().location())) {
+            if(!AxRegistry.AxolootlVariantsReg.isValid(registryAccess, entry.getFirst().location())) {
                 continue;
             }
-            if(!AxRegistry.AxolootlVariantsReg.isValid(entry.getSecond().location())) {
+            if(!AxRegistry.AxolootlVariantsReg.isValid(registryAccess, entry.getSecond().location())) {
                 continue;
             }
             // get or create wrapper
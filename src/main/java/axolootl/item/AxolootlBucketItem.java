@@ -216,12 +216,8 @@ public class AxolootlBucketItem extends MobBucketItem {
         }
         // load variant ID
         final ResourceLocation id = new ResourceLocation(itemStack.getTag().getString(AxolootlEntity.KEY_VARIANT_ID));
-        // validate variant ID
-        if(!includeAll && !AxRegistry.AxolootlVariantsReg.isValid(id)) {
-            return Optional.empty();
-        }
-        // load variant
-        return AxolootlVariant.getRegistry(registryAccess).getOptional(id);
+        // load and validate variant
+        return AxRegistry.AxolootlVariantsReg.getSnapshot(registryAccess).get(id, includeAll);
     }
 
     /**
@@ -13,6 +13,7 @@ import axolootl.network.AxNetwork;
 import axolootl.network.ServerBoundControllerCyclePacket;
 import axolootl.network.ServerBoundControllerTabPacket;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -48,6 +49,10 @@ public abstract class AbstractControllerMenu extends AbstractContainerMenu imple
             this.tab = AxRegistry.AquariumTabsReg.CONTROLLER.get().getSortedIndex();
         }
         this.cycle = cycle;
+        // send the full controller state when the menu is opened
+        if(this.controller != null && inv.player instanceof ServerPlayer serverPlayer) {
+            this.controller.sendFullSnapshot(serverPlayer);
+        }
     }
 
     //// TAB ////
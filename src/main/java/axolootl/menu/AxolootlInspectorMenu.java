@@ -135,9 +135,12 @@ public class AxolootlInspectorMenu extends CyclingContainerMenu {
             // load capability
             player.getCapability(Axolootl.AXOLOOTL_RESEARCH_CAPABILITY).ifPresent(c -> {
                 // add variant (on both sides) and send sync (on server)
-                if(c.addAxolootl(id) && player instanceof ServerPlayer serverPlayer) {
-                    player.playSound(SoundEvents.PLAYER_LEVELUP);
-                    c.syncToClient(serverPlayer);
+                if(player instanceof ServerPlayer serverPlayer) {
+                    if(c.addAxolootl(serverPlayer, id)) {
+                        player.playSound(SoundEvents.PLAYER_LEVELUP);
+                    }
+                } else {
+                    c.addAxolootl(id);
                 }
             });
             // set changed
@@ -15,7 +15,7 @@ import net.minecraftforge.network.simple.SimpleChannel;
 import java.util.Optional;
 
 public final class AxNetwork {
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "2";
     public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(new ResourceLocation(Axolootl.MODID, "channel"), () -> PROTOCOL_VERSION, PROTOCOL_VERSION::equals, PROTOCOL_VERSION::equals);
 
     public static void register() {
@@ -26,5 +26,7 @@ public final class AxNetwork {
         CHANNEL.registerMessage(messageId++, ServerBoundExtractAxolootlPacket.class, ServerBoundExtractAxolootlPacket::toBytes, ServerBoundExtractAxolootlPacket::fromBytes, ServerBoundExtractAxolootlPacket::handlePacket, Optional.of(NetworkDirection.PLAY_TO_SERVER));
         CHANNEL.registerMessage(messageId++, ServerBoundInsertAxolootlPacket.class, ServerBoundInsertAxolootlPacket::toBytes, ServerBoundInsertAxolootlPacket::fromBytes, ServerBoundInsertAxolootlPacket::handlePacket, Optional.of(NetworkDirection.PLAY_TO_SERVER));
         CHANNEL.registerMessage(messageId++, ClientBoundSyncAxolootlResearchCapabilityPacket.class, ClientBoundSyncAxolootlResearchCapabilityPacket::toBytes, ClientBoundSyncAxolootlResearchCapabilityPacket::fromBytes, ClientBoundSyncAxolootlResearchCapabilityPacket::handlePacket, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(messageId++, ClientBoundControllerSyncPacket.class, ClientBoundControllerSyncPacket::toBytes, ClientBoundControllerSyncPacket::fromBytes, ClientBoundControllerSyncPacket::handlePacket, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(messageId++, ServerBoundControllerSyncRequestPacket.class, ServerBoundControllerSyncRequestPacket::toBytes, ServerBoundControllerSyncRequestPacket::fromBytes, ServerBoundControllerSyncRequestPacket::handlePacket, Optional.of(NetworkDirection.PLAY_TO_SERVER));
     }
 }
@@ -0,0 +1,455 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.network;
+
+import axolootl.block.entity.ControllerBlockEntity;
+import axolootl.client.ClientUtil;
+import axolootl.util.BreedStatus;
+import axolootl.util.FeedStatus;
+import axolootl.util.TankMultiblock;
+import axolootl.util.TankStatus;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Sends the changes to a controller since the previous sync. The status, speed, and ticker header is always sent,
+ * while the tank size, tracked axolootls, modifiers, and tracked blocks are only sent as additions and removals.
+ * Clients that do not have the base version of the state request a full snapshot instead.
+ */
+public class ClientBoundControllerSyncPacket {
+
+    private final BlockPos pos;
+    private final int baseVersion;
+    private final int version;
+    // HEADER //
+    private final TankStatus tankStatus;
+    private final FeedStatus feedStatus;
+    private final BreedStatus breedStatus;
+    private final double generationSpeed;
+    private final double feedSpeed;
+    private final double breedSpeed;
+    private final long generationTime;
+    private final long feedTime;
+    private final long breedTime;
+    // TANK //
+    private final boolean sizeChanged;
+    @Nullable
+    private final TankMultiblock.Size size;
+    private final Map<UUID, ResourceLocation> addedAxolootls;
+    private final List<UUID> removedAxolootls;
+    private final Map<BlockPos, ResourceLocation> addedModifiers;
+    private final List<BlockPos> removedModifiers;
+    private final Set<BlockPos> activatedModifiers;
+    private final Set<BlockPos> deactivatedModifiers;
+    private final Map<ResourceLocation, Set<BlockPos>> addedBlocks;
+    private final Map<ResourceLocation, Set<BlockPos>> removedBlocks;
+
+    private ClientBoundControllerSyncPacket(BlockPos pos, int baseVersion, int version,
+                                            TankStatus tankStatus, FeedStatus feedStatus, BreedStatus breedStatus,
+                                            double generationSpeed, double feedSpeed, double breedSpeed,
+                                            long generationTime, long feedTime, long breedTime,
+                                            boolean sizeChanged, @Nullable TankMultiblock.Size size,
+                                            Map<UUID, ResourceLocation> addedAxolootls, List<UUID> removedAxolootls,
+                                            Map<BlockPos, ResourceLocation> addedModifiers, List<BlockPos> removedModifiers,
+                                            Set<BlockPos> activatedModifiers, Set<BlockPos> deactivatedModifiers,
+                                            Map<ResourceLocation, Set<BlockPos>> addedBlocks, Map<ResourceLocation, Set<BlockPos>> removedBlocks) {
+        this.pos = pos;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.tankStatus = tankStatus;
+        this.feedStatus = feedStatus;
+        this.breedStatus = breedStatus;
+        this.generationSpeed = generationSpeed;
+        this.feedSpeed = feedSpeed;
+        this.breedSpeed = breedSpeed;
+        this.generationTime = generationTime;
+        this.feedTime = feedTime;
+        this.breedTime = breedTime;
+        this.sizeChanged = sizeChanged;
+        this.size = size;
+        this.addedAxolootls = addedAxolootls;
+        this.removedAxolootls = removedAxolootls;
+        this.addedModifiers = addedModifiers;
+        this.removedModifiers = removedModifiers;
+        this.activatedModifiers = activatedModifiers;
+        this.deactivatedModifiers = deactivatedModifiers;
+        this.addedBlocks = addedBlocks;
+        this.removedBlocks = removedBlocks;
+    }
+
+    /**
+     * Creates a packet with the differences between two states. Collections whose version
+     * did not change are not compared, so a packet where no collection changed only contains the header.
+     * @param controller the controller block entity
+     * @param previous the state that was sent in the previous sync
+     * @param current the current state
+     * @param baseVersion the version of the previous state
+     * @param version the version of the current state
+     * @return a new packet with the differences between the previous and current state
+     */
+    public static ClientBoundControllerSyncPacket create(final ControllerBlockEntity controller, final State previous, final State current,
+                                                         final int baseVersion, final int version) {
+        // axolootls
+        final Map<UUID, ResourceLocation> addedAxolootls = new HashMap<>();
+        final List<UUID> removedAxolootls = new ArrayList<>();
+        if(previous.axolootls != current.axolootls) {
+            diff(previous.axolootls, current.axolootls, addedAxolootls, removedAxolootls);
+        }
+        // modifiers
+        final Map<BlockPos, ResourceLocation> addedModifiers = new HashMap<>();
+        final List<BlockPos> removedModifiers = new ArrayList<>();
+        final Set<BlockPos> activatedModifiers = new HashSet<>();
+        final Set<BlockPos> deactivatedModifiers = new HashSet<>();
+        if(previous.modifiers != current.modifiers) {
+            diff(previous.modifiers, current.modifiers, addedModifiers, removedModifiers);
+            activatedModifiers.addAll(current.activeModifiers);
+            activatedModifiers.removeAll(previous.activeModifiers);
+            deactivatedModifiers.addAll(previous.activeModifiers);
+            deactivatedModifiers.removeAll(current.activeModifiers);
+        }
+        // tracked blocks
+        final Map<ResourceLocation, Set<BlockPos>> addedBlocks = new HashMap<>();
+        final Map<ResourceLocation, Set<BlockPos>> removedBlocks = new HashMap<>();
+        if(previous.trackedBlocks != current.trackedBlocks) {
+            diffBlocks(previous.trackedBlocks, current.trackedBlocks, addedBlocks, removedBlocks);
+        }
+        return new ClientBoundControllerSyncPacket(controller.getBlockPos(), baseVersion, version,
+                controller.getTankStatus(), controller.getFeedStatus(), controller.getBreedStatus(),
+                controller.getGenerationSpeed(), controller.getFeedSpeed(), controller.getBreedSpeed(),
+                controller.getResourceGenerationTime(), controller.getFeedTime(), controller.getBreedTime(),
+                !Objects.equals(previous.size, current.size), current.size,
+                addedAxolootls, removedAxolootls, addedModifiers, removedModifiers,
+                activatedModifiers, deactivatedModifiers, addedBlocks, removedBlocks);
+    }
+
+    private static void diffBlocks(final Map<ResourceLocation, Set<BlockPos>> previous, final Map<ResourceLocation, Set<BlockPos>> current,
+                                   final Map<ResourceLocation, Set<BlockPos>> addedBlocks, final Map<ResourceLocation, Set<BlockPos>> removedBlocks) {
+        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : current.entrySet()) {
+            final Set<BlockPos> before = previous.getOrDefault(entry.getKey(), Set.of());
+            final Set<BlockPos> added = new HashSet<>(entry.getValue());
+            added.removeAll(before);
+            if(!added.isEmpty()) {
+                addedBlocks.put(entry.getKey(), added);
+            }
+        }
+        for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : previous.entrySet()) {
+            final Set<BlockPos> after = current.getOrDefault(entry.getKey(), Set.of());
+            final Set<BlockPos> removed = new HashSet<>(entry.getValue());
+            removed.removeAll(after);
+            if(!removed.isEmpty()) {
+                removedBlocks.put(entry.getKey(), removed);
+            }
+        }
+    }
+
+    private static <K, V> void diff(final Map<K, V> previous, final Map<K, V> current, final Map<K, V> added, final List<K> removed) {
+        for(Map.Entry<K, V> entry : current.entrySet()) {
+            if(!entry.getValue().equals(previous.get(entry.getKey()))) {
+                added.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for(K key : previous.keySet()) {
+            if(!current.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+    }
+
+    /**
+     * Reads the raw packet data from the data stream.
+     *
+     * @param buf the PacketBuffer
+     * @return a new instance of the packet based on the PacketBuffer
+     */
+    public static ClientBoundControllerSyncPacket fromBytes(final FriendlyByteBuf buf) {
+        final BlockPos pos = buf.readBlockPos();
+        final int baseVersion = buf.readVarInt();
+        final int version = buf.readVarInt();
+        // header
+        final TankStatus tankStatus = buf.readEnum(TankStatus.class);
+        final FeedStatus feedStatus = buf.readEnum(FeedStatus.class);
+        final BreedStatus breedStatus = buf.readEnum(BreedStatus.class);
+        final double generationSpeed = buf.readDouble();
+        final double feedSpeed = buf.readDouble();
+        final double breedSpeed = buf.readDouble();
+        final long generationTime = buf.readVarLong();
+        final long feedTime = buf.readVarLong();
+        final long breedTime = buf.readVarLong();
+        // size
+        final boolean sizeChanged = buf.readBoolean();
+        final TankMultiblock.Size size = (sizeChanged && buf.readBoolean()) ? buf.readWithCodec(TankMultiblock.Size.CODEC) : null;
+        // axolootls
+        final Map<UUID, ResourceLocation> addedAxolootls = buf.readMap(FriendlyByteBuf::readUUID, FriendlyByteBuf::readResourceLocation);
+        final List<UUID> removedAxolootls = buf.readList(FriendlyByteBuf::readUUID);
+        // modifiers
+        final Map<BlockPos, ResourceLocation> addedModifiers = buf.readMap(b -> BlockPos.of(b.readLong()), FriendlyByteBuf::readResourceLocation);
+        final List<BlockPos> removedModifiers = readPositions(buf, ArrayList::new);
+        final Set<BlockPos> activatedModifiers = readPositions(buf, HashSet::new);
+        final Set<BlockPos> deactivatedModifiers = readPositions(buf, HashSet::new);
+        // tracked blocks
+        final Map<ResourceLocation, Set<BlockPos>> addedBlocks = buf.readMap(FriendlyByteBuf::readResourceLocation, b -> readPositions(b, HashSet::new));
+        final Map<ResourceLocation, Set<BlockPos>> removedBlocks = buf.readMap(FriendlyByteBuf::readResourceLocation, b -> readPositions(b, HashSet::new));
+        return new ClientBoundControllerSyncPacket(pos, baseVersion, version, tankStatus, feedStatus, breedStatus,
+                generationSpeed, feedSpeed, breedSpeed, generationTime, feedTime, breedTime, sizeChanged, size,
+                addedAxolootls, removedAxolootls, addedModifiers, removedModifiers, activatedModifiers, deactivatedModifiers,
+                addedBlocks, removedBlocks);
+    }
+
+    /**
+     * Writes the raw packet data to the data stream.
+     *
+     * @param msg the packet
+     * @param buf the PacketBuffer
+     */
+    public static void toBytes(final ClientBoundControllerSyncPacket msg, final FriendlyByteBuf buf) {
+        buf.writeBlockPos(msg.pos);
+        buf.writeVarInt(msg.baseVersion);
+        buf.writeVarInt(msg.version);
+        // header
+        buf.writeEnum(msg.tankStatus);
+        buf.writeEnum(msg.feedStatus);
+        buf.writeEnum(msg.breedStatus);
+        buf.writeDouble(msg.generationSpeed);
+        buf.writeDouble(msg.feedSpeed);
+        buf.writeDouble(msg.breedSpeed);
+        buf.writeVarLong(msg.generationTime);
+        buf.writeVarLong(msg.feedTime);
+        buf.writeVarLong(msg.breedTime);
+        // size
+        buf.writeBoolean(msg.sizeChanged);
+        if(msg.sizeChanged) {
+            buf.writeBoolean(msg.size != null);
+            if(msg.size != null) {
+                buf.writeWithCodec(TankMultiblock.Size.CODEC, msg.size);
+            }
+        }
+        // axolootls
+        buf.writeMap(msg.addedAxolootls, FriendlyByteBuf::writeUUID, FriendlyByteBuf::writeResourceLocation);
+        buf.writeCollection(msg.removedAxolootls, FriendlyByteBuf::writeUUID);
+        // modifiers
+        buf.writeMap(msg.addedModifiers, (b, p) -> b.writeLong(p.asLong()), FriendlyByteBuf::writeResourceLocation);
+        writePositions(buf, msg.removedModifiers);
+        writePositions(buf, msg.activatedModifiers);
+        writePositions(buf, msg.deactivatedModifiers);
+        // tracked blocks
+        buf.writeMap(msg.addedBlocks, FriendlyByteBuf::writeResourceLocation, ClientBoundControllerSyncPacket::writePositions);
+        buf.writeMap(msg.removedBlocks, FriendlyByteBuf::writeResourceLocation, ClientBoundControllerSyncPacket::writePositions);
+    }
+
+    private static void writePositions(final FriendlyByteBuf buf, final Collection<BlockPos> positions) {
+        final long[] array = new long[positions.size()];
+        int i = 0;
+        for(BlockPos p : positions) {
+            array[i++] = p.asLong();
+        }
+        buf.writeLongArray(array);
+    }
+
+    private static <T extends Collection<BlockPos>> T readPositions(final FriendlyByteBuf buf, final IntFunction<T> factory) {
+        final long[] array = buf.readLongArray();
+        final T collection = factory.apply(array.length);
+        for(long l : array) {
+            collection.add(BlockPos.of(l));
+        }
+        return collection;
+    }
+
+    /**
+     * Handles the packet when it is received.
+     *
+     * @param message the packet
+     * @param contextSupplier the NetworkEvent.Context supplier
+     */
+    public static void handlePacket(final ClientBoundControllerSyncPacket message, final Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        if (context.getDirection().getReceptionSide() == LogicalSide.CLIENT) {
+            context.enqueueWork(() -> {
+                // validate level
+                final Optional<Level> oLevel = ClientUtil.getClientLevel();
+                if(oLevel.isEmpty() || !oLevel.get().isLoaded(message.pos)) {
+                    return;
+                }
+                // validate controller
+                if(!(oLevel.get().getBlockEntity(message.pos) instanceof ControllerBlockEntity controller)) {
+                    return;
+                }
+                // apply changes or request a full snapshot
+                if(!controller.handleSyncPacket(message)) {
+                    AxNetwork.CHANNEL.sendToServer(new ServerBoundControllerSyncRequestPacket(message.pos));
+                }
+            });
+        }
+        context.setPacketHandled(true);
+    }
+
+    //// GETTERS ////
+
+    public int getBaseVersion() {
+        return baseVersion;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public TankStatus getTankStatus() {
+        return tankStatus;
+    }
+
+    public FeedStatus getFeedStatus() {
+        return feedStatus;
+    }
+
+    public BreedStatus getBreedStatus() {
+        return breedStatus;
+    }
+
+    public double getGenerationSpeed() {
+        return generationSpeed;
+    }
+
+    public double getFeedSpeed() {
+        return feedSpeed;
+    }
+
+    public double getBreedSpeed() {
+        return breedSpeed;
+    }
+
+    public long getGenerationTime() {
+        return generationTime;
+    }
+
+    public long getFeedTime() {
+        return feedTime;
+    }
+
+    public long getBreedTime() {
+        return breedTime;
+    }
+
+    public boolean isSizeChanged() {
+        return sizeChanged;
+    }
+
+    @Nullable
+    public TankMultiblock.Size getSize() {
+        return size;
+    }
+
+    public Map<UUID, ResourceLocation> getAddedAxolootls() {
+        return addedAxolootls;
+    }
+
+    public List<UUID> getRemovedAxolootls() {
+        return removedAxolootls;
+    }
+
+    public Map<BlockPos, ResourceLocation> getAddedModifiers() {
+        return addedModifiers;
+    }
+
+    public List<BlockPos> getRemovedModifiers() {
+        return removedModifiers;
+    }
+
+    public Set<BlockPos> getActivatedModifiers() {
+        return activatedModifiers;
+    }
+
+    public Set<BlockPos> getDeactivatedModifiers() {
+        return deactivatedModifiers;
+    }
+
+    public Map<ResourceLocation, Set<BlockPos>> getAddedBlocks() {
+        return addedBlocks;
+    }
+
+    public Map<ResourceLocation, Set<BlockPos>> getRemovedBlocks() {
+        return removedBlocks;
+    }
+
+    //// STATE ////
+
+    /**
+     * A copy of the synced parts of a controller, used as the base for the next sync.
+     * Collections whose version did not change since the previous state are shared with it instead of copied.
+     */
+    public static final class State {
+        @Nullable
+        private final TankMultiblock.Size size;
+        private final int axolootlsVersion;
+        private final Map<UUID, ResourceLocation> axolootls;
+        private final int modifiersVersion;
+        private final Map<BlockPos, ResourceLocation> modifiers;
+        private final Set<BlockPos> activeModifiers;
+        private final int trackedBlocksVersion;
+        private final Map<ResourceLocation, Set<BlockPos>> trackedBlocks;
+
+        /**
+         * @param previous the previous state, if any
+         * @param size the tank size
+         * @param axolootls the tracked axolootls
+         * @param axolootlsVersion the version of the tracked axolootls
+         * @param modifiers the aquarium modifiers
+         * @param activeModifiers the active aquarium modifiers
+         * @param modifiersVersion the version of the aquarium modifiers and active aquarium modifiers
+         * @param trackedBlocks the tracked blocks for each category
+         * @param trackedBlocksVersion the version of the tracked blocks
+         */
+        public State(@Nullable State previous, @Nullable TankMultiblock.Size size,
+                     Map<UUID, ResourceLocation> axolootls, int axolootlsVersion,
+                     Map<BlockPos, ResourceLocation> modifiers, Set<BlockPos> activeModifiers, int modifiersVersion,
+                     Map<ResourceLocation, Set<BlockPos>> trackedBlocks, int trackedBlocksVersion) {
+            this.size = size;
+            this.axolootlsVersion = axolootlsVersion;
+            this.modifiersVersion = modifiersVersion;
+            this.trackedBlocksVersion = trackedBlocksVersion;
+            // axolootls
+            if(previous != null && previous.axolootlsVersion == axolootlsVersion) {
+                this.axolootls = previous.axolootls;
+            } else {
+                this.axolootls = new HashMap<>(axolootls);
+            }
+            // modifiers
+            if(previous != null && previous.modifiersVersion == modifiersVersion) {
+                this.modifiers = previous.modifiers;
+                this.activeModifiers = previous.activeModifiers;
+            } else {
+                this.modifiers = new HashMap<>(modifiers);
+                this.activeModifiers = new HashSet<>(activeModifiers);
+            }
+            // tracked blocks
+            if(previous != null && previous.trackedBlocksVersion == trackedBlocksVersion) {
+                this.trackedBlocks = previous.trackedBlocks;
+            } else {
+                this.trackedBlocks = new HashMap<>();
+                for(Map.Entry<ResourceLocation, Set<BlockPos>> entry : trackedBlocks.entrySet()) {
+                    this.trackedBlocks.put(entry.getKey(), new HashSet<>(entry.getValue()));
+                }
+            }
+        }
+    }
+}
@@ -9,38 +9,74 @@ package axolootl.network;
 import axolootl.Axolootl;
 import axolootl.capability.AxolootlResearchCapability;
 import axolootl.client.ClientUtil;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.Tag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.network.NetworkEvent;
 
+import java.util.BitSet;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+/**
+ * Sends the research of a player to the client, either as the full bit set or as the bits that were added or removed.
+ * Bits refer to the {@link axolootl.capability.AxolootlResearchIndex}, which is verified by its fingerprint.
+ */
 public class ClientBoundSyncAxolootlResearchCapabilityPacket {
 
-    private static final String KEY_CAPABILITY = "Capability";
+    private final int fingerprint;
+    private final boolean full;
+    private final BitSet research;
+    private final int[] added;
+    private final int[] removed;
+
+    private ClientBoundSyncAxolootlResearchCapabilityPacket(final int fingerprint, final boolean full, final BitSet research, final int[] added, final int[] removed) {
+        this.fingerprint = fingerprint;
+        this.full = full;
+        this.research = research;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * @param fingerprint the index fingerprint
+     * @param research the known axolootls
+     * @return a packet that replaces all research on the client
+     */
+    public static ClientBoundSyncAxolootlResearchCapabilityPacket full(final int fingerprint, final BitSet research) {
+        return new ClientBoundSyncAxolootlResearchCapabilityPacket(fingerprint, true, (BitSet) research.clone(), new int[0], new int[0]);
+    }
+
+    /**
+     * @param fingerprint the index fingerprint
+     * @param added the indices of the axolootls that were added
+     * @param removed the indices of the axolootls that were removed
+     * @return a packet that adds and removes the given research on the client
+     */
+    public static ClientBoundSyncAxolootlResearchCapabilityPacket delta(final int fingerprint, final int[] added, final int[] removed) {
+        return new ClientBoundSyncAxolootlResearchCapabilityPacket(fingerprint, false, new BitSet(), added, removed);
+    }
+
+    //// GETTERS ////
 
-    private CompoundTag tag;
+    public int getFingerprint() {
+        return fingerprint;
+    }
 
-    public ClientBoundSyncAxolootlResearchCapabilityPacket(final AxolootlResearchCapability capability) {
-        this(capability.serializeNBT());
+    public boolean isFull() {
+        return full;
     }
 
-    private ClientBoundSyncAxolootlResearchCapabilityPacket(final CompoundTag tag) {
-        this.tag = tag;
+    public BitSet getResearch() {
+        return research;
     }
 
-    private ClientBoundSyncAxolootlResearchCapabilityPacket(final ListTag listTag) {
-        this.tag = new CompoundTag();
-        this.tag.put(KEY_CAPABILITY, listTag);
+    public int[] getAdded() {
+        return added;
     }
 
-    public ListTag getListTag() {
-        return this.tag.getList(KEY_CAPABILITY, Tag.TAG_STRING);
+    public int[] getRemoved() {
+        return removed;
     }
 
     /**
@@ -50,8 +86,12 @@ public class ClientBoundSyncAxolootlResearchCapabilityPacket {
      * @return a new instance of the packet based on the PacketBuffer
      */
     public static ClientBoundSyncAxolootlResearchCapabilityPacket fromBytes(final FriendlyByteBuf buf) {
-        CompoundTag tag = buf.readNbt();
-        return new ClientBoundSyncAxolootlResearchCapabilityPacket(tag);
+        final int fingerprint = buf.readInt();
+        final boolean full = buf.readBoolean();
+        if(full) {
+            return full(fingerprint, BitSet.valueOf(buf.readLongArray()));
+        }
+        return delta(fingerprint, buf.readVarIntArray(), buf.readVarIntArray());
     }
 
     /**
@@ -61,7 +101,14 @@ public class ClientBoundSyncAxolootlResearchCapabilityPacket {
      * @param buf the PacketBuffer
      */
     public static void toBytes(final ClientBoundSyncAxolootlResearchCapabilityPacket msg, final FriendlyByteBuf buf) {
-        buf.writeNbt(msg.tag);
+        buf.writeInt(msg.fingerprint);
+        buf.writeBoolean(msg.full);
+        if(msg.full) {
+            buf.writeLongArray(msg.research.toLongArray());
+        } else {
+            buf.writeVarIntArray(msg.added);
+            buf.writeVarIntArray(msg.removed);
+        }
     }
 
     /**
@@ -81,8 +128,10 @@ public class ClientBoundSyncAxolootlResearchCapabilityPacket {
                 }
                 // load capability
                 final Optional<AxolootlResearchCapability> oCap = player.getCapability(Axolootl.AXOLOOTL_RESEARCH_CAPABILITY).resolve();
-                // deserialize capability from packet
-                oCap.ifPresent(c -> c.deserializeNBT(message.getListTag()));
+                // apply research from packet
+                if(oCap.isPresent() && !oCap.get().applySync(message)) {
+                    Axolootl.LOGGER.warn("[ClientBoundSyncAxolootlResearchCapabilityPacket] Ignored research because the axolootl variant index does not match the server");
+                }
             });
         }
         context.setPacketHandled(true);
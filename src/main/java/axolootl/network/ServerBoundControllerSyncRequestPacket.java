@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.network;
+
+import axolootl.block.entity.ControllerBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Requests a full snapshot of a controller when the client missed a delta sync
+ */
+public class ServerBoundControllerSyncRequestPacket {
+
+    /** The maximum squared distance between the player and the controller **/
+    private static final double MAX_DISTANCE_SQ = 256.0D * 256.0D;
+
+    private final BlockPos pos;
+
+    /**
+     * @param pos the controller position
+     */
+    public ServerBoundControllerSyncRequestPacket(final BlockPos pos) {
+        this.pos = pos;
+    }
+
+    /**
+     * Reads the raw packet data from the data stream.
+     *
+     * @param buf the PacketBuffer
+     * @return a new instance of the packet based on the PacketBuffer
+     */
+    public static ServerBoundControllerSyncRequestPacket fromBytes(final FriendlyByteBuf buf) {
+        final BlockPos pos = buf.readBlockPos();
+        return new ServerBoundControllerSyncRequestPacket(pos);
+    }
+
+    /**
+     * Writes the raw packet data to the data stream.
+     *
+     * @param msg the packet
+     * @param buf the PacketBuffer
+     */
+    public static void toBytes(final ServerBoundControllerSyncRequestPacket msg, final FriendlyByteBuf buf) {
+        buf.writeBlockPos(msg.pos);
+    }
+
+    /**
+     * Handles the packet when it is received.
+     *
+     * @param message the packet
+     * @param contextSupplier the NetworkEvent.Context supplier
+     */
+    public static void handlePacket(final ServerBoundControllerSyncRequestPacket message, final Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        if (context.getDirection().getReceptionSide() == LogicalSide.SERVER && context.getSender() != null) {
+            context.enqueueWork(() -> {
+                // validate player
+                final ServerPlayer player = context.getSender();
+                if(player.distanceToSqr(message.pos.getX() + 0.5D, message.pos.getY() + 0.5D, message.pos.getZ() + 0.5D) > MAX_DISTANCE_SQ
+                        || !player.level.isLoaded(message.pos)) {
+                    return;
+                }
+                // validate controller
+                if(!(player.level.getBlockEntity(message.pos) instanceof ControllerBlockEntity controller)) {
+                    return;
+                }
+                // send snapshot
+                controller.sendFullSnapshot(player);
+            });
+        }
+        context.setPacketHandled(true);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.util;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.util.RandomSource;
+import net.minecraft.util.random.WeightedEntry;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Samples weighted values in constant time using the alias method, as described by Vose.
+ * Each value is assigned a column with a probability of being selected and an alias that is selected otherwise.
+ * @param <T> the value type
+ */
+@Immutable
+public final class AliasSampler<T> {
+
+    private static final AliasSampler<?> EMPTY = new AliasSampler<>(ImmutableList.of(), new double[0]);
+
+    private final List<T> values;
+    private final double[] weights;
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasSampler(final List<T> values, final double[] weights) {
+        this.values = values;
+        this.weights = weights;
+        this.probability = new double[values.size()];
+        this.alias = new int[values.size()];
+        build();
+    }
+
+    //// FACTORY METHODS ////
+
+    /**
+     * @param <T> the value type
+     * @return a sampler with no values
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AliasSampler<T> empty() {
+        return (AliasSampler<T>) EMPTY;
+    }
+
+    /**
+     * @param entries the weighted entries, such as from {@link net.minecraft.util.random.SimpleWeightedRandomList#unwrap()}
+     * @param <T> the value type
+     * @return a sampler for the given entries
+     */
+    public static <T> AliasSampler<T> of(final List<WeightedEntry.Wrapper<T>> entries) {
+        final ImmutableList.Builder<T> builder = ImmutableList.builder();
+        final double[] weights = new double[entries.size()];
+        for(int i = 0; i < weights.length; i++) {
+            builder.add(entries.get(i).getData());
+            weights[i] = entries.get(i).getWeight().asInt();
+        }
+        return of(builder.build(), weights);
+    }
+
+    /**
+     * @param values the values
+     * @param weights the weight of each value, where weights that are zero or negative are never selected
+     * @param <T> the value type
+     * @return a sampler for the given values
+     * @throws IllegalArgumentException if the number of values and weights are not equal
+     */
+    public static <T> AliasSampler<T> of(final List<T> values, final double[] weights) {
+        if(values.size() != weights.length) {
+            throw new IllegalArgumentException("Expected " + values.size() + " weights but found " + weights.length);
+        }
+        double total = 0;
+        for(double weight : weights) {
+            total += Math.max(0, weight);
+        }
+        if(!(total > 0)) {
+            return empty();
+        }
+        return new AliasSampler<>(ImmutableList.copyOf(values), weights.clone());
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param random the random source
+     * @return the index of a random value, or -1 if there are no values
+     */
+    public int sampleIndex(final RandomSource random) {
+        if(values.isEmpty()) {
+            return -1;
+        }
+        final int column = random.nextInt(values.size());
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * @param random the random source
+     * @return a random value, if any
+     */
+    public Optional<T> sample(final RandomSource random) {
+        final int index = sampleIndex(random);
+        return index < 0 ? Optional.empty() : Optional.of(values.get(index));
+    }
+
+    //// GETTERS ////
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the values in the same order that they were provided
+     */
+    public List<T> getValues() {
+        return values;
+    }
+
+    /**
+     * @param index the index of a value
+     * @return the weight of the value, or 0 if the weight was not positive
+     */
+    public double getWeight(final int index) {
+        return Math.max(0, weights[index]);
+    }
+
+    //// HELPER METHODS ////
+
+    private void build() {
+        final int n = values.size();
+        double total = 0;
+        for(double weight : weights) {
+            total += Math.max(0, weight);
+        }
+        // scale the weights so that the average column is exactly 1
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for(int i = 0; i < n; i++) {
+            scaled[i] = Math.max(0, weights[i]) * n / total;
+            if(scaled[i] < 1.0D) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        // fill each small column with part of a large column
+        while(smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0D;
+            if(scaled[more] < 1.0D) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // remaining columns are full, within rounding error
+        while(largeCount > 0) {
+            final int i = large[--largeCount];
+            probability[i] = 1.0D;
+            alias[i] = i;
+        }
+        while(smallCount > 0) {
+            final int i = small[--smallCount];
+            probability[i] = 1.0D;
+            alias[i] = i;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AliasSampler: " + values;
+    }
+}
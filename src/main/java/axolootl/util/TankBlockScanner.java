@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2023 Skyler James
+ * Permission is granted to use, modify, and redistribute this software, in parts or in whole,
+ * under the GNU LGPLv3 license (https://www.gnu.org/licenses/lgpl-3.0.en.html)
+ **/
+
+package axolootl.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
+
+/**
+ * Tests block states by reading chunk sections directly instead of looking up the chunk and section for each block.
+ * The most recent section is kept, and sections whose palette has no matching block states are rejected without
+ * reading any blocks. Positions in chunks that are not loaded are read from the level instead.
+ * Not thread safe, create a new scanner for each search.
+ */
+public class TankBlockScanner {
+
+    private static final long NO_SECTION = Long.MAX_VALUE;
+
+    private final LevelAccessor level;
+    private final Predicate<BlockState> predicate;
+    private final BlockPos.MutableBlockPos fallbackPos;
+
+    // CURRENT SECTION //
+    private long sectionKey;
+    @Nullable
+    private LevelChunkSection section;
+    private SectionType sectionType;
+
+    /**
+     * @param level the level
+     * @param predicate the block state predicate
+     */
+    public TankBlockScanner(final LevelAccessor level, final Predicate<BlockState> predicate) {
+        this.level = level;
+        this.predicate = predicate;
+        this.fallbackPos = new BlockPos.MutableBlockPos();
+        this.sectionKey = NO_SECTION;
+        this.sectionType = SectionType.OUTSIDE;
+    }
+
+    //// METHODS ////
+
+    /**
+     * @param pos the block position
+     * @return true if the block state at the given position passes the predicate
+     */
+    public boolean test(final BlockPos pos) {
+        return test(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if the block state at the given position passes the predicate
+     */
+    public boolean test(final int x, final int y, final int z) {
+        switch (loadSection(x, y, z)) {
+            case MATCH: return predicate.test(section.getBlockState(x & 15, y & 15, z & 15));
+            case UNLOADED: return predicate.test(level.getBlockState(fallbackPos.set(x, y, z)));
+            case NO_MATCH: case OUTSIDE: default: return false;
+        }
+    }
+
+    /**
+     * Tests each block state in the given box, one section at a time
+     * @param minX the minimum x coordinate, inclusive
+     * @param minY the minimum y coordinate, inclusive
+     * @param minZ the minimum z coordinate, inclusive
+     * @param maxX the maximum x coordinate, inclusive
+     * @param maxY the maximum y coordinate, inclusive
+     * @param maxZ the maximum z coordinate, inclusive
+     * @return true if every block state in the box passes the predicate, or true if the box is empty
+     */
+    public boolean testAll(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+        // iterate each section that intersects the box
+        for(int sectionY = SectionPos.blockToSectionCoord(minY), endY = SectionPos.blockToSectionCoord(maxY); sectionY <= endY; sectionY++) {
+            final int fromY = Math.max(minY, SectionPos.sectionToBlockCoord(sectionY));
+            final int toY = Math.min(maxY, SectionPos.sectionToBlockCoord(sectionY, 15));
+            for(int sectionZ = SectionPos.blockToSectionCoord(minZ), endZ = SectionPos.blockToSectionCoord(maxZ); sectionZ <= endZ; sectionZ++) {
+                final int fromZ = Math.max(minZ, SectionPos.sectionToBlockCoord(sectionZ));
+                final int toZ = Math.min(maxZ, SectionPos.sectionToBlockCoord(sectionZ, 15));
+                for(int sectionX = SectionPos.blockToSectionCoord(minX), endX = SectionPos.blockToSectionCoord(maxX); sectionX <= endX; sectionX++) {
+                    final int fromX = Math.max(minX, SectionPos.sectionToBlockCoord(sectionX));
+                    final int toX = Math.min(maxX, SectionPos.sectionToBlockCoord(sectionX, 15));
+                    if(fromX > toX || fromY > toY || fromZ > toZ) {
+                        continue;
+                    }
+                    // reject the section using its palette, otherwise test each block in the section
+                    final SectionType type = loadSection(fromX, fromY, fromZ);
+                    if(type == SectionType.NO_MATCH || type == SectionType.OUTSIDE) {
+                        return false;
+                    }
+                    for(int y = fromY; y <= toY; y++) {
+                        for(int z = fromZ; z <= toZ; z++) {
+                            for(int x = fromX; x <= toX; x++) {
+                                final BlockState blockState = (type == SectionType.MATCH)
+                                        ? section.getBlockState(x & 15, y & 15, z & 15)
+                                        : level.getBlockState(fallbackPos.set(x, y, z));
+                                if(!predicate.test(blockState)) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests each block state in the given box, one section at a time
+     * @param from a corner of the box
+     * @param to the opposite corner of the box
+     * @return true if every block state in the box passes the predicate
+     * @see #testAll(int, int, int, int, int, int)
+     */
+    public boolean testAll(final BlockPos from, final BlockPos to) {
+        return testAll(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()), Math.min(from.getZ(), to.getZ()),
+                Math.max(from.getX(), to.getX()), Math.max(from.getY(), to.getY()), Math.max(from.getZ(), to.getZ()));
+    }
+
+    //// HELPER METHODS ////
+
+    /**
+     * Loads the section that contains the given position, if it is not already loaded
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the type of the section
+     */
+    private SectionType loadSection(final int x, final int y, final int z) {
+        final int sectionX = SectionPos.blockToSectionCoord(x);
+        final int sectionY = SectionPos.blockToSectionCoord(y);
+        final int sectionZ = SectionPos.blockToSectionCoord(z);
+        final long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        if(key == this.sectionKey) {
+            return this.sectionType;
+        }
+        this.sectionKey = key;
+        this.section = null;
+        // validate section is inside the level
+        final int index = level.getSectionIndexFromSectionY(sectionY);
+        if(index < 0 || index >= level.getSectionsCount()) {
+            return this.sectionType = SectionType.OUTSIDE;
+        }
+        // load chunk without generating or loading it
+        final ChunkAccess chunk = level.getChunk(sectionX, sectionZ, ChunkStatus.FULL, false);
+        if(null == chunk) {
+            return this.sectionType = SectionType.UNLOADED;
+        }
+        // check the section palette for matching block states
+        final LevelChunkSection chunkSection = chunk.getSection(index);
+        if(chunkSection.hasOnlyAir() || !chunkSection.maybeHas(predicate)) {
+            return this.sectionType = SectionType.NO_MATCH;
+        }
+        this.section = chunkSection;
+        return this.sectionType = SectionType.MATCH;
+    }
+
+    private static enum SectionType {
+        /** The section is outside the build height **/
+        OUTSIDE,
+        /** The chunk is not loaded, so blocks are read from the level **/
+        UNLOADED,
+        /** The section palette has no matching block states **/
+        NO_MATCH,
+        /** The section palette has at least one matching block state **/
+        MATCH;
+    }
+}
@@ -73,9 +73,13 @@ public class TankMultiblock {
      * @see #isInsideTankStructure(LevelAccessor, BlockPos)
      */
     public Optional<TankMultiblock.Size> hasTankStructure(final LevelAccessor level, final BlockPos pos) {
+        return hasTankStructure(createScanner(level), level, pos);
+    }
+
+    private Optional<TankMultiblock.Size> hasTankStructure(final TankBlockScanner scanner, final LevelAccessor level, final BlockPos pos) {
         // determine multiblock size
-        final BlockPos origin = calculateOrigin(level, pos);
-        final BlockPos end = calculateEnd(level, pos);
+        final BlockPos origin = trace(scanner, level, pos, Direction.AxisDirection.NEGATIVE);
+        final BlockPos end = trace(scanner, level, pos, Direction.AxisDirection.POSITIVE);
         final Vec3i dimensions = end.subtract(origin);
         // validate dimensions
         final int volume = dimensions.getX() * dimensions.getY() * dimensions.getZ();
@@ -87,10 +91,8 @@ public class TankMultiblock {
         // create size object
         final TankMultiblock.Size size = new TankMultiblock.Size(origin, dimensions);
         // validate blocks
-        for(BlockPos p : size.outerPositions()) {
-            if(!isTankBlock(level, p)) {
-                return Optional.empty();
-            }
+        if(!isTankShell(scanner, size)) {
+            return Optional.empty();
         }
         // all checks passed
         return Optional.of(size);
@@ -108,13 +110,36 @@ public class TankMultiblock {
             return Optional.empty();
         }
         // validate blocks
-        for(BlockPos p : size.outerPositions()) {
-            if(!isTankBlock(level, p)) {
-                return Optional.of(false);
-            }
-        }
-        // all checks passed
-        return Optional.of(true);
+        return Optional.of(isTankShell(createScanner(level), size));
+    }
+
+    /**
+     * Validates each face of the multiblock border using the given scanner
+     * @param scanner the tank block scanner
+     * @param size the multiblock size
+     * @return true if every block on the multiblock border is a multiblock building block
+     * @see Size#outerPositions()
+     */
+    private boolean isTankShell(final TankBlockScanner scanner, final TankMultiblock.Size size) {
+        final BlockPos o = size.getOrigin();
+        final int x = size.dimensions.getX();
+        final int y = size.dimensions.getY();
+        final int z = size.dimensions.getZ();
+        // check the faces in the same order as the outer positions
+        return scanner.testAll(o, o.offset(x, 0, z))
+                && scanner.testAll(o.offset(0, y, 0), o.offset(x, y, z))
+                && scanner.testAll(o.offset(1, 1, 0), o.offset(x - 1, y - 1, 0))
+                && scanner.testAll(o.offset(1, 1, z), o.offset(x - 1, y - 1, z))
+                && scanner.testAll(o.offset(0, 1, 0), o.offset(0, y - 1, z))
+                && scanner.testAll(o.offset(x, 1, 0), o.offset(x, y - 1, z));
+    }
+
+    /**
+     * @param level the level
+     * @return a scanner that tests for multiblock building blocks
+     */
+    public TankBlockScanner createScanner(final LevelAccessor level) {
+        return new TankBlockScanner(level, state -> state.is(blocks));
     }
 
     /**
@@ -133,13 +158,14 @@ public class TankMultiblock {
      * @return the result of {@link #hasTankStructure(LevelAccessor, BlockPos)} for the lowest block at or below this position
      */
     public Optional<TankMultiblock.Size> isInsideTankStructure(final LevelAccessor level, final BlockPos pos) {
+        final TankBlockScanner scanner = createScanner(level);
         BlockPos.MutableBlockPos cursor = pos.mutable();
         // move down until cursor is on a valid block
         int offsetY = 0;
-        while(!level.isOutsideBuildHeight(cursor) && !isTankBlock(level, cursor) && (offsetY++) < maxSize.getY()) {
+        while(!level.isOutsideBuildHeight(cursor) && !scanner.test(cursor) && (offsetY++) < maxSize.getY()) {
             cursor.move(Direction.DOWN);
         }
-        return hasTankStructure(level, cursor);
+        return hasTankStructure(scanner, level, cursor);
     }
 
     /**
@@ -172,6 +198,10 @@ public class TankMultiblock {
      * @return the coordinate of the tank end, may be the same as {@code pos}
      */
     public BlockPos trace(final LevelAccessor level, final BlockPos pos, final Direction.AxisDirection axis) {
+        return trace(createScanner(level), level, pos, axis);
+    }
+
+    private BlockPos trace(final TankBlockScanner scanner, final LevelAccessor level, final BlockPos pos, final Direction.AxisDirection axis) {
         // determine directions
         final Direction axisX, axisY, axisZ;
         if(axis == Direction.AxisDirection.NEGATIVE) {
@@ -188,24 +218,24 @@ public class TankMultiblock {
         BlockPos.MutableBlockPos next = pos.mutable();
         // move down until cursor is on the lowest valid block
         int offsetY = 0;
-        while(!level.isOutsideBuildHeight(next) && isTankBlock(level, next.move(axisY)) && (offsetY++) < maxSize.getY()) {
+        while(!level.isOutsideBuildHeight(next) && scanner.test(next.move(axisY)) && (offsetY++) < maxSize.getY()) {
             cursor.set(next);
         }
         next.set(cursor);
         // move west until cursor is on the west-most valid block
         int offsetX = 0;
-        while(isTankBlock(level, next.move(axisX)) && (offsetX++) < maxSize.getX()) {
+        while(scanner.test(next.move(axisX)) && (offsetX++) < maxSize.getX()) {
             cursor.set(next);
         }
         next.set(cursor);
         // move north until cursor is on the north-most valid block
         int offsetZ = 0;
-        while(isTankBlock(level, next.move(axisZ)) && (offsetZ++) < maxSize.getZ()) {
+        while(scanner.test(next.move(axisZ)) && (offsetZ++) < maxSize.getZ()) {
             cursor.set(next);
         }
         next.set(cursor);
         // move down again to compensate for block positions that started on the far upper face
-        while(!level.isOutsideBuildHeight(next) && isTankBlock(level, next.move(axisY)) && (offsetY++) < maxSize.getY()) {
+        while(!level.isOutsideBuildHeight(next) && scanner.test(next.move(axisY)) && (offsetY++) < maxSize.getY()) {
             cursor.set(next);
         }
         // if a valid multiblock exists, the cursor will be in the corner